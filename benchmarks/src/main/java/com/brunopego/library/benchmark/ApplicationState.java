@@ -0,0 +1,81 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.LibraryApplication;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param("10000")
+    int catalogSize;
+
+    ConfigurableApplicationContext context;
+    List<Book> books;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        start(WebApplicationType.NONE);
+    }
+
+    void start(WebApplicationType type, String... properties) {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(type)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    Book book(long index) {
+        return books.get((int) (index % books.size()));
+    }
+
+    private void seed() {
+        BookRepository bookRepository = bean(BookRepository.class);
+        LoanRepository loanRepository = bean(LoanRepository.class);
+
+        List<Book> catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            catalog.add(Book.builder().title("Title " + i).author("Author " + (i % 100)).isbn("isbn-" + i).build());
+        }
+        books = bookRepository.saveAll(catalog);
+
+        List<Loan> loans = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            loans.add(Loan.builder()
+                    .book(books.get(i))
+                    .customer("Customer " + (i % 1000))
+                    .loanDate(LocalDate.now().minusDays(i % 30))
+                    .returned(i % 2 == 0)
+                    .build());
+        }
+        loanRepository.saveAll(loans);
+    }
+
+}
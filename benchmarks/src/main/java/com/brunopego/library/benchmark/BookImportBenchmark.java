@@ -0,0 +1,40 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.api.dto.BookBatchResultDTO;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.service.BookService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookImportBenchmark {
+
+    @Param("5000")
+    private int batchSize;
+
+    private BookService service;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        service = state.bean(BookService.class);
+    }
+
+    @Benchmark
+    public List<BookBatchResultDTO> importBatch(ApplicationState state) {
+        List<Book> books = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            long next = state.sequence.incrementAndGet();
+            books.add(Book.builder().title("Imported " + next).author("Author").isbn("import-" + next).build());
+        }
+        return service.saveAll(books);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private BookService service;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        service = state.bean(BookService.class);
+    }
+
+    @Benchmark
+    public Book save(ApplicationState state) {
+        long next = state.sequence.incrementAndGet();
+        return service.save(Book.builder().title("New title " + next).author("Author").isbn("new-" + next).build());
+    }
+
+    @Benchmark
+    public Page<Book> findByTitle(ApplicationState state) {
+        Book filter = Book.builder().title("Title 42").build();
+        return service.find(filter, PageRequest.of(0, 20));
+    }
+
+}
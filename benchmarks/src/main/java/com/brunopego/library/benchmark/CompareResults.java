@@ -0,0 +1,68 @@
+package com.brunopego.library.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CompareResults {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s new%n", entry.getKey());
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double change = (newScore - oldScore) / oldScore * 100.0;
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double worse = higherIsBetter ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %12.3f -> %12.3f %s %+7.1f%%%s%n",
+                    entry.getKey(), oldScore, newScore,
+                    entry.getValue().path("primaryMetric").path("scoreUnit").asText(),
+                    change, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.api.resource.BookController;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private BookController controller;
+    private ObjectMapper objectMapper;
+    private Page<BookDTO> page;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        controller = state.bean(BookController.class);
+        objectMapper = state.bean(ObjectMapper.class);
+
+        List<BookDTO> content = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            content.add(BookDTO.builder().id(i).title("Title " + i).author("Author " + i).isbn("isbn-" + i).build());
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), state.catalogSize);
+    }
+
+    @Benchmark
+    public Page<BookDTO> findBooks() {
+        BookDTO filter = BookDTO.builder().author("Author 7").build();
+        return controller.find(filter, PageRequest.of(0, pageSize));
+    }
+
+    @Benchmark
+    public byte[] serializeBookPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.brunopego.library.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = Boolean.parseBoolean(arg(args, 0, "false"));
+        int clients = Integer.parseInt(arg(args, 1, "5000"));
+        int seconds = Integer.parseInt(arg(args, 2, "30"));
+        int warmupSeconds = Integer.parseInt(arg(args, 3, "10"));
+        boolean loans = !"books".equals(arg(args, 4, "loans"));
+
+        System.setProperty("http.maxConnections", Integer.toString(clients));
+        String target = System.getProperty("load.url");
+        ApplicationState state = null;
+        String baseUrl;
+        if (target != null) {
+            baseUrl = target;
+            if (Boolean.parseBoolean(System.getProperty("load.seed", "true"))) {
+                seed(baseUrl, 10000);
+            }
+        } else {
+            state = new ApplicationState();
+            state.catalogSize = 10000;
+            state.start(WebApplicationType.SERVLET,
+                    "server.port=0",
+                    "server.tomcat.max-connections=" + (clients * 2),
+                    "server.tomcat.accept-count=" + clients,
+                    "library.search.reindex-on-startup=false",
+                    "library.threads.virtual=" + virtual);
+            baseUrl = "http://localhost:" + state.context.getEnvironment().getProperty("local.server.port");
+        }
+
+        ExecutorService executor = clientExecutor(clients);
+        try {
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long deadline = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+            List<Future<Client>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(new Client(baseUrl, loans, measureFrom, deadline)::call));
+            }
+
+            long requests = 0;
+            long errors = 0;
+            long[] latencies = new long[0];
+            for (Future<Client> future : futures) {
+                Client client = future.get();
+                errors += client.errors;
+                latencies = concat(latencies, client.latencies, client.count);
+                requests += client.count;
+            }
+            Arrays.sort(latencies);
+
+            System.out.printf("endpoint=%s mode=%s clients=%d seconds=%d requests=%d errors=%d throughput=%.0f req/s "
+                            + "p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                    loans ? "loans" : "books", target != null ? target : virtual ? "virtual" : "platform", clients, seconds, requests, errors,
+                    requests / (double) seconds,
+                    millis(percentile(latencies, 0.50)),
+                    millis(percentile(latencies, 0.99)),
+                    millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+        } finally {
+            executor.shutdownNow();
+            if (state != null) {
+                state.stop();
+            }
+        }
+    }
+
+    private static void seed(String baseUrl, int catalogSize) throws IOException {
+        for (int i = 0; i < catalogSize; i++) {
+            post(baseUrl + "/api/books", String.format("{\"title\":\"Title %d\",\"author\":\"Author %d\",\"isbn\":\"isbn-%d\"}",
+                    i, i % 100, i));
+        }
+        for (int i = 0; i < catalogSize; i++) {
+            post(baseUrl + "/api/loans", String.format("{\"isbn\":\"isbn-%d\",\"customer\":\"Customer %d\"}",
+                    i, i % 1000));
+        }
+    }
+
+    private static void post(String url, String json) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        if (status != 201) {
+            throw new IOException("POST " + url + " returned " + status);
+        }
+        connection.getInputStream().close();
+    }
+
+    private static ExecutorService clientExecutor(int clients) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+
+    private static String arg(String[] args, int index, String defaultValue) {
+        return args.length > index ? args[index] : defaultValue;
+    }
+
+    private static long[] concat(long[] target, long[] values, int count) {
+        long[] result = Arrays.copyOf(target, target.length + count);
+        System.arraycopy(values, 0, result, target.length, count);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Client {
+
+        private final String baseUrl;
+        private final boolean loans;
+        private final long measureFrom;
+        private final long deadline;
+        private final byte[] buffer = new byte[8192];
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Client(String baseUrl, boolean loans, long measureFrom, long deadline) {
+            this.baseUrl = baseUrl;
+            this.loans = loans;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        Client call() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                String url = loans
+                        ? baseUrl + "/api/loans?customer=Customer%20" + random.nextInt(1000) + "&size=20"
+                        : baseUrl + "/api/books/" + (1 + random.nextInt(10000));
+                boolean ok = get(url);
+                long end = System.nanoTime();
+                if (now < measureFrom) {
+                    continue;
+                }
+                if (!ok) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - now;
+            }
+            return this;
+        }
+
+        private boolean get(String url) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+                connection.setConnectTimeout(60000);
+                connection.setReadTimeout(60000);
+                int status = connection.getResponseCode();
+                InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                if (body != null) {
+                    try (InputStream in = body) {
+                        while (in.read(buffer) != -1) {
+                            // drain so the connection can be reused
+                        }
+                    }
+                }
+                return status == 200;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.journal.FsyncPolicy;
+import com.brunopego.library.journal.JournalWriter;
+import com.brunopego.library.journal.LoanEvent;
+import com.brunopego.library.journal.MappedLoanJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanJournalBenchmark {
+
+    @Param({"NONE", "INTERVAL", "ALWAYS"})
+    FsyncPolicy fsync;
+
+    private Path directory;
+    private MappedLoanJournal journal;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("loan-journal");
+        journal = new MappedLoanJournal(new JournalWriter(directory, 64L * 1024 * 1024), fsync,
+                Duration.ofSeconds(1), 65536, Duration.ofSeconds(1));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        long id = ++sequence;
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, id, id, id));
+    }
+
+}
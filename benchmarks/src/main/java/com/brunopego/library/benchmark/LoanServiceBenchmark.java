@@ -0,0 +1,49 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.model.entity.Loan;
+import com.brunopego.library.service.LoanService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    private LoanService service;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        service = state.bean(LoanService.class);
+    }
+
+    @Benchmark
+    public Loan save(ApplicationState state) {
+        // seeded books with an even index have no open loan; new loans are saved as
+        // returned so the same books can be loaned again on the next pass
+        long next = state.sequence.incrementAndGet() * 2;
+        Loan loan = Loan.builder()
+                .book(state.book(next))
+                .customer("Customer " + next)
+                .loanDate(LocalDate.now())
+                .returned(true)
+                .build();
+        return service.save(loan);
+    }
+
+    @Benchmark
+    public Page<LoanDTO> findDtoByIsbnOrCustomer(ApplicationState state) {
+        LoanFilterDTO filter = LoanFilterDTO.builder().isbn("isbn-41").customer("Customer 7").build();
+        return service.findDto(filter, PageRequest.of(0, 20));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.mapper.BookMapper;
+import com.brunopego.library.api.mapper.LoanMapper;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param("1000")
+    private int pageSize;
+
+    private List<Book> books;
+    private List<Loan> loans;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        books = new ArrayList<>(pageSize);
+        loans = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            Book book = Book.builder().id(i).title("Title " + i).author("Author " + i).isbn("isbn-" + i).build();
+            books.add(book);
+            loans.add(Loan.builder().id(i).customer("Customer " + i).book(book).loanDate(LocalDate.now()).build());
+        }
+    }
+
+    @Benchmark
+    public List<BookDTO> bookPageWithModelMapper() {
+        List<BookDTO> result = new ArrayList<>(books.size());
+        for (Book book : books) {
+            result.add(modelMapper.map(book, BookDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BookDTO> bookPageWithMapper() {
+        List<BookDTO> result = new ArrayList<>(books.size());
+        for (Book book : books) {
+            result.add(BookMapper.toDto(book));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<LoanDTO> loanPageWithModelMapper() {
+        List<LoanDTO> result = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            result.add(modelMapper.map(loan, LoanDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<LoanDTO> loanPageWithMapper() {
+        List<LoanDTO> result = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            result.add(LoanMapper.toDto(loan));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.service.BookService;
+import com.brunopego.library.service.LoanService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    boolean metrics;
+
+    private final ApplicationState state = new ApplicationState();
+    private BookService bookService;
+    private LoanService loanService;
+
+    @Setup
+    public void setUp() {
+        state.catalogSize = 10000;
+        state.start(WebApplicationType.NONE, "library.metrics.enabled=" + metrics);
+        bookService = state.bean(BookService.class);
+        loanService = state.bean(LoanService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        state.stop();
+    }
+
+    @Benchmark
+    public Optional<Book> getCachedBook() {
+        return bookService.getById(state.book(42).getId());
+    }
+
+    @Benchmark
+    public Page<LoanDTO> findDtoByCustomer() {
+        LoanFilterDTO filter = LoanFilterDTO.builder().customer("Customer 7").build();
+        return loanService.findDto(filter, PageRequest.of(0, 20));
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.brunopego.library.benchmark;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.api.dto.LoanDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"books", "loans"})
+    private String resource;
+
+    @Param("500")
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private Page<?> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json().factory(factory()).build();
+        List<BookDTO> books = new ArrayList<>(pageSize);
+        List<LoanDTO> loans = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            BookDTO book = BookDTO.builder().id(i).title("Title " + i).author("Author " + i).isbn("isbn-" + i).build();
+            books.add(book);
+            loans.add(LoanDTO.builder().id(i).isbn(book.getIsbn()).customer("Customer " + i).book(book).build());
+        }
+        List<?> content = "books".equals(resource) ? books : loans;
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+        payload = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d %s: %d bytes%n", format, pageSize, resource, payload.length);
+    }
+
+    private JsonFactory factory() {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public JsonNode deserialize() throws IOException {
+        return mapper.readTree(payload);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.brunopego.library.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveLibraryApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveLibraryApplication.class, args);
+	}
+
+}
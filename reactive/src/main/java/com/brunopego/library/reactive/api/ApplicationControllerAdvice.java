@@ -0,0 +1,40 @@
+package com.brunopego.library.reactive.api;
+
+import com.brunopego.library.api.exception.ApiErrors;
+import com.brunopego.library.exception.BusinessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestControllerAdvice
+public class ApplicationControllerAdvice {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleValidationExceptions(WebExchangeBindException e) {
+        return new ApiErrors(e.getBindingResult());
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleBusinessException(BusinessException e) {
+        return new ApiErrors(e);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return new ApiErrors("Resource was modified concurrently");
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiErrors> handleResponseStatusException(ResponseStatusException e) {
+        return new ResponseEntity<ApiErrors>(new ApiErrors(e), e.getStatus());
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.brunopego.library.reactive.api.mapper;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.reactive.model.entity.Book;
+
+public final class BookMapper {
+
+    private BookMapper() {
+    }
+
+    public static BookDTO toDto(Book book) {
+        if (book == null) {
+            return null;
+        }
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn());
+    }
+
+    public static Book toEntity(BookDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        return new Book(dto.getId(), dto.getTitle(), dto.getAuthor(), dto.getIsbn(), null);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.brunopego.library.reactive.api.mapper;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.reactive.model.entity.LoanRow;
+
+public final class LoanMapper {
+
+    private LoanMapper() {
+    }
+
+    public static LoanDTO toDto(LoanRow row) {
+        if (row == null) {
+            return null;
+        }
+        return new LoanDTO(row.getId(), row.getCustomer(), row.getBookId(), row.getTitle(), row.getAuthor(), row.getIsbn());
+    }
+
+}
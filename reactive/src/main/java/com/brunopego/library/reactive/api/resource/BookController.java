@@ -0,0 +1,109 @@
+package com.brunopego.library.reactive.api.resource;
+
+import com.brunopego.library.api.Cursor;
+import com.brunopego.library.api.ETags;
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.api.dto.CursorPageDTO;
+import com.brunopego.library.reactive.api.mapper.BookMapper;
+import com.brunopego.library.reactive.service.BookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+
+    @Autowired
+    private BookService service;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> create(@RequestBody @Valid BookDTO dto) {
+        return service.save(BookMapper.toEntity(dto)).map(BookMapper::toDto);
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<BookDTO>> get(@PathVariable Long id, ServerWebExchange exchange) {
+        return service
+                .getById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> {
+                    String etag = ETags.of(book.getVersion());
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.empty();
+                    }
+                    return Mono.just(ResponseEntity.ok().eTag(etag).body(BookMapper.toDto(book)));
+                });
+    }
+
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable Long id) {
+        return service
+                .getById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(service::delete);
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<BookDTO>> update(@PathVariable Long id,
+                                                @RequestBody BookDTO dto,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service
+                .getById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> {
+                    ETags.checkIfMatch(ifMatch, book.getVersion());
+                    book.setAuthor(dto.getAuthor());
+                    book.setTitle(dto.getTitle());
+                    return service.update(book);
+                })
+                .map(book -> ResponseEntity.ok().eTag(ETags.of(book.getVersion())).body(BookMapper.toDto(book)));
+    }
+
+    @GetMapping
+    public Mono<Page<BookDTO>> find(BookDTO dto, Pageable pageRequest) {
+        return service
+                .find(BookMapper.toEntity(dto), pageRequest)
+                .map(result -> {
+                    List<BookDTO> list = result
+                            .getContent()
+                            .stream()
+                            .map(BookMapper::toDto)
+                            .collect(Collectors.toList());
+                    return new PageImpl<BookDTO>(list, pageRequest, result.getTotalElements());
+                });
+    }
+
+    @GetMapping(params = "after")
+    public Mono<CursorPageDTO<BookDTO>> findAfter(BookDTO dto,
+                                                  @RequestParam String after,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Cursor.pageSize(size);
+        return service
+                .findAfter(BookMapper.toEntity(dto), Cursor.decode(after), pageSize)
+                .map(result -> {
+                    List<BookDTO> list = result
+                            .getContent()
+                            .stream()
+                            .map(BookMapper::toDto)
+                            .collect(Collectors.toList());
+                    String next = result.hasNext() ? Cursor.encode(list.get(list.size() - 1).getId()) : null;
+                    return new CursorPageDTO<BookDTO>(list, pageSize, next);
+                });
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.brunopego.library.reactive.api.resource;
+
+import com.brunopego.library.api.Cursor;
+import com.brunopego.library.api.ETags;
+import com.brunopego.library.api.dto.CursorPageDTO;
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.ReturnedLoanDTO;
+import com.brunopego.library.reactive.model.entity.Loan;
+import com.brunopego.library.reactive.service.BookService;
+import com.brunopego.library.reactive.service.LoanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/loans")
+public class LoanController {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Long> crate(@RequestBody LoanDTO dto) {
+        return bookService.getBookByIsbn(dto.getIsbn())
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isbn")))
+                .map(book -> Loan.builder().bookId(book.getId()).customer(dto.getCustomer()).loanDate(LocalDate.now()).build())
+                .flatMap(loanService::save)
+                .map(Loan::getId);
+    }
+
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Void>> returnBook(@PathVariable Long id,
+                                                 @RequestBody ReturnedLoanDTO dto,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return loanService.getById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(loan -> {
+                    ETags.checkIfMatch(ifMatch, loan.getVersion());
+                    loan.setReturned(Boolean.TRUE.equals(dto.getReturned()));
+                    return loanService.update(loan);
+                })
+                .map(loan -> ResponseEntity.ok().eTag(ETags.of(loan.getVersion())).<Void>build());
+    }
+
+    @GetMapping
+    public Mono<Page<LoanDTO>> find(LoanFilterDTO dto, Pageable pageRequest) {
+        return loanService.findDto(dto, pageRequest);
+    }
+
+    @GetMapping(params = "after")
+    public Mono<CursorPageDTO<LoanDTO>> findAfter(LoanFilterDTO dto,
+                                                  @RequestParam String after,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Cursor.pageSize(size);
+        return loanService
+                .findAfter(dto, Cursor.decode(after), pageSize)
+                .map(result -> {
+                    List<LoanDTO> list = result.getContent();
+                    String next = result.hasNext() ? Cursor.encode(list.get(list.size() - 1).getId()) : null;
+                    return new CursorPageDTO<LoanDTO>(list, pageSize, next);
+                });
+    }
+
+}
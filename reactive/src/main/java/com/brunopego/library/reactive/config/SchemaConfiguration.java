@@ -0,0 +1,21 @@
+package com.brunopego.library.reactive.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaConfiguration {
+
+    @Bean(initMethod = "migrate")
+    public Flyway flyway(@Value("${library.flyway.url}") String url,
+                         @Value("${spring.r2dbc.username}") String username,
+                         @Value("${spring.r2dbc.password}") String password) {
+        return Flyway.configure()
+                .dataSource(url, username, password)
+                .locations("classpath:db/migration")
+                .load();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.brunopego.library.reactive.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("book")
+public class Book {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String author;
+
+    private String isbn;
+
+    @Version
+    private Long version;
+
+}
@@ -0,0 +1,26 @@
+package com.brunopego.library.reactive.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanRow {
+
+    @Id
+    private Long id;
+
+    private String customer;
+
+    private Long bookId;
+
+    private String title;
+
+    private String author;
+
+    private String isbn;
+
+}
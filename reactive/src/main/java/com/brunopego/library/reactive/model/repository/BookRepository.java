@@ -0,0 +1,42 @@
+package com.brunopego.library.reactive.model.repository;
+
+import com.brunopego.library.reactive.model.entity.Book;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface BookRepository extends ReactiveCrudRepository<Book, Long> {
+
+    String FILTER = "(:title is null or lower(title) like :title escape '!') " +
+            "and (:author is null or lower(author) like :author escape '!') " +
+            "and (:isbn is null or lower(isbn) like :isbn escape '!')";
+
+    Mono<Book> findByIsbn(String isbn);
+
+    @Query("select * from book where " + FILTER + " order by id limit :limit offset :offset")
+    Flux<Book> findPage(@Param("title") String title,
+                        @Param("author") String author,
+                        @Param("isbn") String isbn,
+                        @Param("limit") int limit,
+                        @Param("offset") long offset);
+
+    @Query("select count(*) from book where " + FILTER)
+    Mono<Long> countFiltered(@Param("title") String title,
+                             @Param("author") String author,
+                             @Param("isbn") String isbn);
+
+    @Query("select * from book where id > :after and " + FILTER + " order by id limit :limit")
+    Flux<Book> findAfter(@Param("after") long after,
+                         @Param("title") String title,
+                         @Param("author") String author,
+                         @Param("isbn") String isbn,
+                         @Param("limit") int limit);
+
+    @Query("select next value for book_sequence")
+    Mono<Long> nextIdBlock();
+
+}
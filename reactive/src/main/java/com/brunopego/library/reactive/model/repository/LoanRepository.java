@@ -0,0 +1,9 @@
+package com.brunopego.library.reactive.model.repository;
+
+import com.brunopego.library.reactive.model.entity.Loan;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoanRepository extends ReactiveCrudRepository<Loan, Long> {
+}
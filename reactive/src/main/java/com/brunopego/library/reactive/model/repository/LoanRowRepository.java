@@ -0,0 +1,70 @@
+package com.brunopego.library.reactive.model.repository;
+
+import com.brunopego.library.reactive.model.entity.LoanRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@org.springframework.stereotype.Repository
+public interface LoanRowRepository extends Repository<LoanRow, Long> {
+
+    String ROW = "select l.id, l.customer, b.id as book_id, b.title, b.author, b.isbn " +
+            "from loan l join book b on b.id = l.id_book ";
+
+    String ISBN_OR_CUSTOMER_IDS = "select l.id from loan l join book b on b.id = l.id_book where b.isbn = :isbn " +
+            "union select l.id from loan l where l.customer = :customer";
+
+    @Query("select count(*) from loan")
+    Mono<Long> count();
+
+    @Query(ROW + "order by l.id limit :limit offset :offset")
+    Flux<LoanRow> findAllRows(@Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(ROW + "where b.isbn = :isbn order by l.id limit :limit offset :offset")
+    Flux<LoanRow> findRowsByBookIsbn(@Param("isbn") String isbn, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("select count(*) from loan l join book b on b.id = l.id_book where b.isbn = :isbn")
+    Mono<Long> countByBookIsbn(@Param("isbn") String isbn);
+
+    @Query(ROW + "where l.customer = :customer order by l.id limit :limit offset :offset")
+    Flux<LoanRow> findRowsByCustomer(@Param("customer") String customer, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("select count(*) from loan where customer = :customer")
+    Mono<Long> countByCustomer(@Param("customer") String customer);
+
+    @Query("select l.id, l.customer, b.id as book_id, b.title, b.author, b.isbn " +
+            "from (" + ISBN_OR_CUSTOMER_IDS + ") u join loan l on l.id = u.id join book b on b.id = l.id_book " +
+            "order by l.id limit :limit offset :offset")
+    Flux<LoanRow> findRowsByBookIsbnUnionCustomer(@Param("isbn") String isbn,
+                                                  @Param("customer") String customer,
+                                                  @Param("limit") int limit,
+                                                  @Param("offset") long offset);
+
+    @Query("select count(*) from (" + ISBN_OR_CUSTOMER_IDS + ") u")
+    Mono<Long> countByBookIsbnUnionCustomer(@Param("isbn") String isbn, @Param("customer") String customer);
+
+    @Query(ROW + "where l.id > :after order by l.id limit :limit")
+    Flux<LoanRow> findRowsAfter(@Param("after") long after, @Param("limit") int limit);
+
+    @Query(ROW + "where l.id > :after and b.isbn = :isbn order by l.id limit :limit")
+    Flux<LoanRow> findRowsAfterByBookIsbn(@Param("after") long after,
+                                          @Param("isbn") String isbn,
+                                          @Param("limit") int limit);
+
+    @Query(ROW + "where l.id > :after and l.customer = :customer order by l.id limit :limit")
+    Flux<LoanRow> findRowsAfterByCustomer(@Param("after") long after,
+                                          @Param("customer") String customer,
+                                          @Param("limit") int limit);
+
+    @Query("select l.id, l.customer, b.id as book_id, b.title, b.author, b.isbn from (" +
+            "select l.id from loan l join book b on b.id = l.id_book where b.isbn = :isbn and l.id > :after " +
+            "union select l.id from loan l where l.customer = :customer and l.id > :after" +
+            ") u join loan l on l.id = u.id join book b on b.id = l.id_book order by l.id limit :limit")
+    Flux<LoanRow> findRowsAfterByBookIsbnUnionCustomer(@Param("after") long after,
+                                                       @Param("isbn") String isbn,
+                                                       @Param("customer") String customer,
+                                                       @Param("limit") int limit);
+
+}
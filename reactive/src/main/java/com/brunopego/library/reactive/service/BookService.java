@@ -0,0 +1,25 @@
+package com.brunopego.library.reactive.service;
+
+import com.brunopego.library.reactive.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Mono;
+
+public interface BookService {
+
+    Mono<Book> save(Book book);
+
+    Mono<Book> getById(Long id);
+
+    Mono<Void> delete(Book book);
+
+    Mono<Book> update(Book book);
+
+    Mono<Page<Book>> find(Book filter, Pageable pageable);
+
+    Mono<Slice<Book>> findAfter(Book filter, long afterId, int size);
+
+    Mono<Book> getBookByIsbn(String isbn);
+
+}
@@ -0,0 +1,23 @@
+package com.brunopego.library.reactive.service;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.reactive.model.entity.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Mono;
+
+public interface LoanService {
+
+    Mono<Loan> save(Loan loan);
+
+    Mono<Loan> getById(Long id);
+
+    Mono<Loan> update(Loan loan);
+
+    Mono<Page<LoanDTO>> findDto(LoanFilterDTO filterDTO, Pageable pageable);
+
+    Mono<Slice<LoanDTO>> findAfter(LoanFilterDTO filterDTO, long afterId, int size);
+
+}
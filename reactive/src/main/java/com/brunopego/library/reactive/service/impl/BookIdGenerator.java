@@ -0,0 +1,42 @@
+package com.brunopego.library.reactive.service.impl;
+
+import com.brunopego.library.reactive.model.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+public class BookIdGenerator {
+
+    static final int INCREMENT = 100;
+
+    @Autowired
+    private BookRepository repository;
+
+    private long next;
+    private long max;
+
+    public Mono<Long> nextId() {
+        synchronized (this) {
+            if (hasRemaining()) {
+                return Mono.just(next++);
+            }
+        }
+        return repository.nextIdBlock().flatMap(hi -> hi < INCREMENT
+                ? repository.nextIdBlock().map(max -> allocate(hi, max))
+                : Mono.just(allocate(hi - INCREMENT + 1, hi)));
+    }
+
+    private synchronized long allocate(long from, long to) {
+        if (!hasRemaining()) {
+            next = from;
+            max = to;
+        }
+        return next++;
+    }
+
+    private boolean hasRemaining() {
+        return next != 0 && next <= max;
+    }
+
+}
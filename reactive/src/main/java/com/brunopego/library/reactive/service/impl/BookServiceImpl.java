@@ -0,0 +1,116 @@
+package com.brunopego.library.reactive.service.impl;
+
+import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.exception.ErrorCode;
+import com.brunopego.library.reactive.model.entity.Book;
+import com.brunopego.library.reactive.model.repository.BookRepository;
+import com.brunopego.library.reactive.service.BookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class BookServiceImpl implements BookService {
+
+    static final String UNIQUE_ISBN_CONSTRAINT = "UK_BOOK_ISBN";
+
+    @Autowired
+    private BookRepository repository;
+
+    @Autowired
+    private BookIdGenerator idGenerator;
+
+    @Override
+    public Mono<Book> save(Book book) {
+        return idGenerator.nextId()
+                .flatMap(id -> {
+                    book.setId(id);
+                    book.setVersion(null);
+                    return repository.save(book);
+                })
+                .onErrorMap(DataIntegrityViolationException.class, BookServiceImpl::translate);
+    }
+
+    @Override
+    public Mono<Book> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Mono<Void> delete(Book book) {
+        if (book == null || book.getId() == null) {
+            return Mono.error(new IllegalArgumentException());
+        }
+        return repository.delete(book);
+    }
+
+    @Override
+    public Mono<Book> update(Book book) {
+        if (book == null || book.getId() == null) {
+            return Mono.error(new IllegalArgumentException());
+        }
+        return repository.save(book);
+    }
+
+    @Override
+    public Mono<Page<Book>> find(Book filter, Pageable pageable) {
+        String title = containing(filter.getTitle());
+        String author = containing(filter.getAuthor());
+        String isbn = containing(filter.getIsbn());
+        return repository.findPage(title, author, isbn, pageable.getPageSize(), pageable.getOffset())
+                .collectList()
+                .zipWith(repository.countFiltered(title, author, isbn))
+                .map(result -> new PageImpl<Book>(result.getT1(), pageable, result.getT2()));
+    }
+
+    @Override
+    public Mono<Slice<Book>> findAfter(Book filter, long afterId, int size) {
+        return repository.findAfter(afterId,
+                        containing(filter.getTitle()),
+                        containing(filter.getAuthor()),
+                        containing(filter.getIsbn()),
+                        size + 1)
+                .collectList()
+                .map(books -> slice(books, size));
+    }
+
+    @Override
+    public Mono<Book> getBookByIsbn(String isbn) {
+        return repository.findByIsbn(isbn);
+    }
+
+    static <T> Slice<T> slice(List<T> content, int size) {
+        boolean hasNext = content.size() > size;
+        List<T> page = hasNext ? content.subList(0, size) : content;
+        return new SliceImpl<T>(page, PageRequest.of(0, size), hasNext);
+    }
+
+    private static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toUpperCase().contains(UNIQUE_ISBN_CONSTRAINT)) {
+            return new BusinessException(ErrorCode.ISBN_ALREADY_REGISTERED, "Isbn já cadastrado");
+        }
+        return e;
+    }
+
+    private static String containing(String value) {
+        if (value == null) {
+            return null;
+        }
+        String escaped = value.toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+}
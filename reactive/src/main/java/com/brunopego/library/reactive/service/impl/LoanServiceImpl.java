@@ -0,0 +1,106 @@
+package com.brunopego.library.reactive.service.impl;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.exception.ErrorCode;
+import com.brunopego.library.reactive.api.mapper.LoanMapper;
+import com.brunopego.library.reactive.model.entity.Loan;
+import com.brunopego.library.reactive.model.entity.LoanRow;
+import com.brunopego.library.reactive.model.repository.LoanRepository;
+import com.brunopego.library.reactive.model.repository.LoanRowRepository;
+import com.brunopego.library.reactive.service.LoanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class LoanServiceImpl implements LoanService {
+
+    static final String OPEN_BOOK_CONSTRAINT = "UK_LOAN_OPEN_BOOK";
+
+    @Autowired
+    private LoanRepository repository;
+
+    @Autowired
+    private LoanRowRepository rowRepository;
+
+    @Override
+    public Mono<Loan> save(Loan loan) {
+        return repository.save(loan)
+                .onErrorMap(DataIntegrityViolationException.class, LoanServiceImpl::translate);
+    }
+
+    @Override
+    public Mono<Loan> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Mono<Loan> update(Loan loan) {
+        return repository.save(loan)
+                .onErrorMap(DataIntegrityViolationException.class, LoanServiceImpl::translate);
+    }
+
+    @Override
+    public Mono<Page<LoanDTO>> findDto(LoanFilterDTO filterDTO, Pageable pageable) {
+        String isbn = StringUtils.hasText(filterDTO.getIsbn()) ? filterDTO.getIsbn() : null;
+        String customer = StringUtils.hasText(filterDTO.getCustomer()) ? filterDTO.getCustomer() : null;
+        int limit = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        if (isbn == null && customer == null) {
+            return page(rowRepository.findAllRows(limit, offset), rowRepository.count(), pageable);
+        }
+        if (customer == null) {
+            return page(rowRepository.findRowsByBookIsbn(isbn, limit, offset), rowRepository.countByBookIsbn(isbn), pageable);
+        }
+        if (isbn == null) {
+            return page(rowRepository.findRowsByCustomer(customer, limit, offset), rowRepository.countByCustomer(customer), pageable);
+        }
+        return page(rowRepository.findRowsByBookIsbnUnionCustomer(isbn, customer, limit, offset),
+                rowRepository.countByBookIsbnUnionCustomer(isbn, customer), pageable);
+    }
+
+    @Override
+    public Mono<Slice<LoanDTO>> findAfter(LoanFilterDTO filterDTO, long afterId, int size) {
+        String isbn = StringUtils.hasText(filterDTO.getIsbn()) ? filterDTO.getIsbn() : null;
+        String customer = StringUtils.hasText(filterDTO.getCustomer()) ? filterDTO.getCustomer() : null;
+        int limit = size + 1;
+        Flux<LoanRow> rows;
+        if (isbn == null && customer == null) {
+            rows = rowRepository.findRowsAfter(afterId, limit);
+        } else if (customer == null) {
+            rows = rowRepository.findRowsAfterByBookIsbn(afterId, isbn, limit);
+        } else if (isbn == null) {
+            rows = rowRepository.findRowsAfterByCustomer(afterId, customer, limit);
+        } else {
+            rows = rowRepository.findRowsAfterByBookIsbnUnionCustomer(afterId, isbn, customer, limit);
+        }
+        return rows.map(LoanMapper::toDto)
+                .collectList()
+                .map(loans -> BookServiceImpl.slice(loans, size));
+    }
+
+    private static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toUpperCase().contains(OPEN_BOOK_CONSTRAINT)) {
+            return new BusinessException(ErrorCode.BOOK_ALREADY_LOANED, "Book already loaned");
+        }
+        return e;
+    }
+
+    private static Mono<Page<LoanDTO>> page(Flux<LoanRow> rows, Mono<Long> count, Pageable pageable) {
+        return rows.map(LoanMapper::toDto)
+                .collectList()
+                .zipWith(count)
+                .map(result -> new PageImpl<LoanDTO>(result.getT1(), pageable, result.getT2()));
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.brunopego.library.reactive;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.api.dto.CursorPageDTO;
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.ReturnedLoanDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveLibraryApplicationTests {
+
+    @Autowired
+    WebTestClient client;
+
+    private BookDTO createBook(String title, String isbn) {
+        BookDTO book = BookDTO.builder().title(title).author("Bruno").isbn(isbn).build();
+        return client.post().uri("/api/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(book)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private Long createLoan(String isbn, String customer) {
+        return client.post().uri("/api/loans")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LoanDTO.builder().isbn(isbn).customer(customer).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Long.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar, atualizar e remover livros pelo R2DBC")
+    public void shouldManageBooks() {
+        // cenário
+        BookDTO book = createBook("Dom Casmurro", "reactive-1");
+        BookDTO other = createBook("Quincas Borba", "reactive-2");
+
+        // execução e verificação
+        assertThat(other.getId()).isEqualTo(book.getId() + 1);
+        client.post().uri("/api/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BookDTO.builder().title("Outro").author("Outro").isbn("reactive-1").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Isbn já cadastrado");
+
+        book.setTitle("Memorial de Aires");
+        client.put().uri("/api/books/" + book.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(book)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("title").isEqualTo("Memorial de Aires");
+
+        client.get().uri("/api/books?title=MEMORIAL&page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("content[0].isbn").isEqualTo("reactive-1");
+
+        client.delete().uri("/api/books/" + other.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/api/books/" + other.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Deve emprestar, devolver e filtrar empréstimos pelo R2DBC")
+    public void shouldManageLoans() {
+        // cenário
+        createBook("O Cortiço", "reactive-3");
+        createBook("Iracema", "reactive-4");
+        Long loanId = createLoan("reactive-3", "Maria");
+        createLoan("reactive-4", "João");
+
+        // execução e verificação
+        client.post().uri("/api/loans")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LoanDTO.builder().isbn("reactive-3").customer("Pedro").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Book already loaned");
+
+        client.post().uri("/api/loans")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LoanDTO.builder().isbn("inexistente").customer("Pedro").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Book not found for passed isbn");
+
+        client.get().uri("/api/loans?isbn=reactive-4&customer=Maria&page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("totalElements").isEqualTo(2)
+                .jsonPath("content[0].book.title").isEqualTo("O Cortiço")
+                .jsonPath("content[1].customer").isEqualTo("João");
+
+        client.get().uri("/api/loans?customer=Maria&after=&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("next").doesNotExist();
+
+        client.patch().uri("/api/loans/" + loanId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ReturnedLoanDTO.builder().returned(true).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        createLoan("reactive-3", "Pedro");
+    }
+
+    private CursorPageDTO<LoanDTO> findLoansAfter(String query) {
+        return client.get().uri("/api/loans?" + query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPageDTO<LoanDTO>>() {})
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os empréstimos por cursor sem filtro")
+    public void shouldFindAllLoansAfterCursor() {
+        // cenário
+        createBook("Senhora", "reactive-5");
+        createBook("Lucíola", "reactive-6");
+        Long first = createLoan("reactive-5", "Ana");
+        Long second = createLoan("reactive-6", "Beatriz");
+
+        // execução
+        List<Long> ids = new ArrayList<>();
+        CursorPageDTO<LoanDTO> page = findLoansAfter("after=&size=1");
+        ids.addAll(page.getContent().stream().map(LoanDTO::getId).collect(Collectors.toList()));
+        while (page.getNext() != null) {
+            page = findLoansAfter("after=" + page.getNext() + "&size=1");
+            ids.addAll(page.getContent().stream().map(LoanDTO::getId).collect(Collectors.toList()));
+        }
+
+        // verificação
+        assertThat(ids).contains(first, second).isSorted().doesNotHaveDuplicates();
+        assertThat(findLoansAfter("isbn=reactive-5&customer=Beatriz&after=&size=10").getContent())
+                .extracting(LoanDTO::getId)
+                .containsExactly(first, second);
+        assertThat(findLoansAfter("isbn=&customer=Beatriz&after=&size=10").getContent())
+                .extracting(LoanDTO::getId)
+                .containsExactly(second);
+    }
+
+}
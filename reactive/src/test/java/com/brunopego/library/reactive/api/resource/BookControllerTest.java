@@ -0,0 +1,173 @@
+package com.brunopego.library.reactive.api.resource;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.reactive.model.entity.Book;
+import com.brunopego.library.reactive.service.BookService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebFluxTest(controllers = BookController.class)
+public class BookControllerTest {
+
+    static String BOOK_API = "/api/books";
+
+    @Autowired
+    WebTestClient client;
+
+    @MockBean
+    BookService service;
+
+    private BookDTO createNewBookDto() {
+        return BookDTO.builder().author("Bruno").title("Um Livro").isbn("123").build();
+    }
+
+    private Book createNewBook() {
+        return Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").version(0L).build();
+    }
+
+    @Test
+    @DisplayName("Deve criar um livro com sucesso")
+    public void shouldCreateBook() {
+        // cenário
+        BDDMockito.given(service.save(Mockito.any(Book.class))).willReturn(Mono.just(createNewBook()));
+
+        // execução e verificação
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createNewBookDto())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("id").isEqualTo(1)
+                .jsonPath("title").isEqualTo("Um Livro")
+                .jsonPath("author").isEqualTo("Bruno")
+                .jsonPath("isbn").isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de validação quando não houver dados suficientes para criação do livro")
+    public void shouldNotCreateInvalidBook() {
+        // execução e verificação
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookDTO())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors.length()").isEqualTo(3);
+
+        Mockito.verify(service, Mockito.never()).save(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro se isbn já estiver cadastrado")
+    public void shouldNotCreateBookWithDuplicatedIsbn() {
+        // cenário
+        BDDMockito.given(service.save(Mockito.any(Book.class)))
+                .willReturn(Mono.error(new BusinessException("Isbn já cadastrado")));
+
+        // execução e verificação
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createNewBookDto())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Isbn já cadastrado");
+    }
+
+    @Test
+    @DisplayName("Deve retornar resource not found quando o livro procurado não existir")
+    public void shouldReturnNotFoundWhenBookDoesNotExist() {
+        // cenário
+        BDDMockito.given(service.getById(1L)).willReturn(Mono.empty());
+
+        // execução e verificação
+        client.get().uri(BOOK_API + "/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("errors").isArray();
+    }
+
+    @Test
+    @DisplayName("Deve retornar not modified quando o ETag informado for a versão atual do livro")
+    public void shouldReturnNotModifiedWhenBookVersionMatches() {
+        // cenário
+        BDDMockito.given(service.getById(1L)).willReturn(Mono.just(createNewBook()));
+
+        // execução e verificação
+        client.get().uri(BOOK_API + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"");
+    }
+
+    @Test
+    @DisplayName("Deve retornar precondition failed ao atualizar um livro com ETag desatualizado")
+    public void shouldNotUpdateBookWithStaleETag() {
+        // cenário
+        BDDMockito.given(service.getById(1L)).willReturn(Mono.just(createNewBook()));
+
+        // execução e verificação
+        client.put().uri(BOOK_API + "/1")
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createNewBookDto())
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        Mockito.verify(service, Mockito.never()).update(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar livros")
+    public void shouldFindBooks() {
+        // cenário
+        BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willAnswer(invocation -> Mono.just(new PageImpl<Book>(Arrays.asList(createNewBook()),
+                        invocation.getArgument(1), 1)));
+
+        // execução e verificação
+        client.get().uri(BOOK_API + "?title=Um&page=0&size=100")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("pageable.pageSize").isEqualTo(100)
+                .jsonPath("pageable.pageNumber").isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao filtrar livros com cursor inválido")
+    public void shouldRejectInvalidCursor() {
+        // execução e verificação
+        client.get().uri(BOOK_API + "?after=***")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Invalid cursor");
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.brunopego.library.reactive.service;
+
+import com.brunopego.library.reactive.model.repository.BookRepository;
+import com.brunopego.library.reactive.service.impl.BookIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+public class BookIdGeneratorTest {
+
+    @InjectMocks
+    private BookIdGenerator generator;
+
+    @Mock
+    private BookRepository repository;
+
+    @Test
+    @DisplayName("Deve gerar ids a partir de 1 como o otimizador pooled do Hibernate")
+    public void shouldStartAtOneLikeHibernatePooledOptimizer() {
+        // cenário
+        Mockito.when(repository.nextIdBlock()).thenReturn(Mono.just(1L), Mono.just(101L), Mono.just(201L));
+
+        // execução
+        long first = generator.nextId().block();
+        for (int i = 0; i < 100; i++) {
+            generator.nextId().block();
+        }
+        long firstOfNextBlock = generator.nextId().block();
+
+        // verificação
+        assertThat(first).isEqualTo(1L);
+        assertThat(firstOfNextBlock).isEqualTo(102L);
+        Mockito.verify(repository, Mockito.times(3)).nextIdBlock();
+    }
+
+    @Test
+    @DisplayName("Deve usar o valor da sequência como topo do bloco após o primeiro")
+    public void shouldUseSequenceValueAsBlockHi() {
+        // cenário
+        Mockito.when(repository.nextIdBlock()).thenReturn(Mono.just(501L));
+
+        // execução
+        long id = generator.nextId().block();
+
+        // verificação
+        assertThat(id).isEqualTo(402L);
+    }
+
+}
@@ -2,6 +2,7 @@ package com.brunopego.library.api;
 
 import com.brunopego.library.api.exception.ApiErrors;
 import com.brunopego.library.exception.BusinessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -27,6 +28,12 @@ public class ApplicationControllerAdvice {
         return new ApiErrors(e);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return new ApiErrors("Resource was modified concurrently");
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity handleResponseStatusException(ResponseStatusException e) {
         return new ResponseEntity(new ApiErrors(e), e.getStatus());
@@ -0,0 +1,51 @@
+package com.brunopego.library.api;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final char SEPARATOR = '\u001f';
+
+    private ETags() {
+    }
+
+    public static String of(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    public static <T> String of(Page<T> page, Function<T, List<?>> fields) {
+        StringBuilder content = new StringBuilder()
+                .append(page.getNumber()).append(SEPARATOR)
+                .append(page.getSize()).append(SEPARATOR)
+                .append(page.getTotalElements());
+        for (T item : page) {
+            for (Object field : fields.apply(item)) {
+                content.append(SEPARATOR).append(field);
+            }
+        }
+        return of(DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static void checkIfMatch(String ifMatch, Object version) {
+        if (ifMatch == null) {
+            return;
+        }
+        String etag = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals(ANY) || candidate.equals(etag)) {
+                return;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Resource has been modified");
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.brunopego.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAvailabilityDTO {
+
+    private String isbn;
+    private Long id;
+    private Status status;
+
+    public enum Status {
+        AVAILABLE,
+        LOANED,
+        NOT_FOUND
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.brunopego.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchResultDTO {
+
+    private String isbn;
+    private Long id;
+    private Status status;
+    private List<String> errors;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+}
@@ -16,4 +16,8 @@ public class LoanDTO {
     private String customer;
     private BookDTO book;
 
+    public LoanDTO(Long id, String customer, Long bookId, String title, String author, String isbn) {
+        this(id, isbn, customer, new BookDTO(bookId, title, author, isbn));
+    }
+
 }
@@ -0,0 +1,23 @@
+package com.brunopego.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReturnResultDTO {
+
+    private Long id;
+    private Status status;
+
+    public enum Status {
+        RETURNED,
+        ALREADY_RETURNED,
+        NOT_FOUND
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.brunopego.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanViewCheckDTO {
+
+    private long loans;
+    private long missing;
+    private long stale;
+    private long orphaned;
+
+    public boolean isConsistent() {
+        return missing == 0 && stale == 0 && orphaned == 0;
+    }
+
+}
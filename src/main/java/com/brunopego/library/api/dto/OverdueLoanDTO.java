@@ -0,0 +1,23 @@
+package com.brunopego.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueLoanDTO {
+
+    private Long id;
+    private String customer;
+    private String isbn;
+    private String title;
+    private LocalDate loanDate;
+    private LocalDate dueDate;
+
+}
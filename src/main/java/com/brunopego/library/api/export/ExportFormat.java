@@ -0,0 +1,37 @@
+package com.brunopego.library.api.export;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum ExportFormat {
+
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat of(String format) {
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.brunopego.library.api.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public abstract class ExportWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    protected final String[] columns;
+
+    protected ExportWriter(String[] columns) {
+        this.columns = columns;
+    }
+
+    public static ExportWriter create(ExportFormat format, OutputStream out, String... columns) throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvWriter(out, columns);
+            case NDJSON:
+            default:
+                return new NdjsonWriter(out, columns);
+        }
+    }
+
+    public void writeRow(Object... values) {
+        try {
+            write(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void write(Object[] values) throws IOException;
+
+    private static class NdjsonWriter extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.generator = JSON_FACTORY.createGenerator(out);
+        }
+
+        @Override
+        protected void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long || value instanceof Integer) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Boolean) {
+                    generator.writeBoolean((Boolean) value);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+
+    }
+
+    private static class CsvWriter extends ExportWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            write(columns);
+        }
+
+        @Override
+        protected void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+    }
+
+}
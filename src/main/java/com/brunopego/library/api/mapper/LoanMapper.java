@@ -0,0 +1,24 @@
+package com.brunopego.library.api.mapper;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+
+public final class LoanMapper {
+
+    private LoanMapper() {
+    }
+
+    public static LoanDTO toDto(Loan loan) {
+        if (loan == null) {
+            return null;
+        }
+        Book book = loan.getBook();
+        return new LoanDTO(
+                loan.getId(),
+                book != null ? book.getIsbn() : null,
+                loan.getCustomer(),
+                BookMapper.toDto(book));
+    }
+
+}
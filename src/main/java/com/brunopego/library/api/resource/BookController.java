@@ -1,22 +1,41 @@
 package com.brunopego.library.api.resource;
 
+import com.brunopego.library.api.Cursor;
+import com.brunopego.library.api.ETags;
+import com.brunopego.library.api.dto.BookAvailabilityDTO;
+import com.brunopego.library.api.dto.BookBatchResultDTO;
 import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.api.dto.CursorPageDTO;
 import com.brunopego.library.api.exception.ApiErrors;
+import com.brunopego.library.api.export.ExportFormat;
+import com.brunopego.library.api.export.ExportWriter;
+import com.brunopego.library.api.mapper.BookMapper;
 import com.brunopego.library.exception.BusinessException;
 import com.brunopego.library.model.entity.Book;
 import com.brunopego.library.service.BookService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,22 +47,74 @@ public class BookController {
     private BookService service;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private Validator validator;
+
+    @Value("${library.books.availability.max-isbns}")
+    private int maxAvailabilityIsbns;
+
+    @Value("${library.books.batch.max-books}")
+    private int maxBatchBooks;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookDTO create(@RequestBody @Valid BookDTO dto) {
-        Book book = modelMapper.map(dto, Book.class);
+        Book book = BookMapper.toEntity(dto);
         book = service.save(book);
-        return modelMapper.map(book, BookDTO.class);
+        return BookMapper.toDto(book);
+    }
+
+    @PostMapping("batch")
+    public List<BookBatchResultDTO> createBatch(@RequestBody List<BookDTO> dtos) {
+        if (dtos.size() > maxBatchBooks) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchBooks + " books per request");
+        }
+        List<BookBatchResultDTO> results = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        List<Book> books = new ArrayList<>(dtos.size());
+        List<Integer> positions = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            BookDTO dto = dtos.get(i);
+            List<String> errors = dto == null
+                    ? Arrays.asList("Livro não informado")
+                    : validator.validate(dto).stream().map(ConstraintViolation::getMessage).collect(Collectors.toList());
+            if (errors.isEmpty()) {
+                Book book = BookMapper.toEntity(dto);
+                book.setId(null);
+                books.add(book);
+                positions.add(i);
+            } else {
+                results.set(i, BookBatchResultDTO.builder()
+                        .isbn(dto == null ? null : dto.getIsbn())
+                        .status(BookBatchResultDTO.Status.REJECTED)
+                        .errors(errors)
+                        .build());
+            }
+        }
+
+        List<BookBatchResultDTO> saved = service.saveAll(books);
+        for (int i = 0; i < saved.size(); i++) {
+            results.set(positions.get(i), saved.get(i));
+        }
+        return results;
+    }
+
+    @PostMapping("availability")
+    public List<BookAvailabilityDTO> availability(@RequestBody List<String> isbns) {
+        if (isbns.size() > maxAvailabilityIsbns) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxAvailabilityIsbns + " isbns per request");
+        }
+        return service.getAvailability(isbns);
     }
 
     @GetMapping("{id}")
-    public BookDTO get(@PathVariable Long id) {
-        return service
-                .getById(id)
-                .map(book -> modelMapper.map(book, BookDTO.class))
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    public ResponseEntity<BookDTO> get(@PathVariable Long id, WebRequest request) {
+        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        String etag = ETags.of(book.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(BookMapper.toDto(book));
     }
 
     @DeleteMapping("{id}")
@@ -55,28 +126,75 @@ public class BookController {
 
     @PutMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public BookDTO update(@PathVariable Long id, @RequestBody BookDTO dto) {
+    public ResponseEntity<BookDTO> update(@PathVariable Long id,
+                                          @RequestBody BookDTO dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         return service
                 .getById(id)
                 .map(book -> {
-                    book.setAuthor(dto.getAuthor());
-                    book.setTitle(dto.getTitle());
-                    book = service.update(book);
-                    return modelMapper.map(book, BookDTO.class);
+                    ETags.checkIfMatch(ifMatch, book.getVersion());
+                    Book updated = service.update(book.toBuilder()
+                            .author(dto.getAuthor())
+                            .title(dto.getTitle())
+                            .build());
+                    return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(BookMapper.toDto(updated));
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping
     public Page<BookDTO> find(BookDTO dto, Pageable pageRequest) {
-        Book filter = modelMapper.map(dto, Book.class);
+        Book filter = BookMapper.toEntity(dto);
         Page<Book> result = service.find(filter, pageRequest);
         List<BookDTO> list = result
                 .getContent()
                 .stream()
-                .map(entity -> modelMapper.map(entity, BookDTO.class))
+                .map(BookMapper::toDto)
+                .collect(Collectors.toList());
+        return new PageImpl<BookDTO>(list, pageRequest, result.getTotalElements());
+    }
+
+    @GetMapping("search")
+    public Page<BookDTO> search(@RequestParam(name = "q", required = false) String text, Pageable pageRequest) {
+        if (!StringUtils.hasText(text)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search text is required");
+        }
+        Page<Book> result = service.search(text, pageRequest);
+        List<BookDTO> list = result
+                .getContent()
+                .stream()
+                .map(BookMapper::toDto)
                 .collect(Collectors.toList());
         return new PageImpl<BookDTO>(list, pageRequest, result.getTotalElements());
     }
 
+    @GetMapping(params = "after")
+    public CursorPageDTO<BookDTO> findAfter(BookDTO dto,
+                                            @RequestParam String after,
+                                            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Cursor.pageSize(size);
+        Slice<Book> result = service.findAfter(BookMapper.toEntity(dto), Cursor.decode(after), pageSize);
+        List<BookDTO> list = result
+                .getContent()
+                .stream()
+                .map(BookMapper::toDto)
+                .collect(Collectors.toList());
+        String next = result.hasNext() ? Cursor.encode(list.get(list.size() - 1).getId()) : null;
+        return new CursorPageDTO<BookDTO>(list, pageSize, next);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = out -> {
+            try (ExportWriter writer = ExportWriter.create(exportFormat, out, "id", "title", "author", "isbn")) {
+                service.exportAll(book -> writer.writeRow(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn()));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books." + exportFormat.getExtension())
+                .body(body);
+    }
+
 }
@@ -1,22 +1,38 @@
 package com.brunopego.library.api.resource;
 
+import com.brunopego.library.api.Cursor;
+import com.brunopego.library.api.ETags;
+import com.brunopego.library.api.dto.CursorPageDTO;
+import com.brunopego.library.api.dto.BookDTO;
 import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanReturnResultDTO;
+import com.brunopego.library.api.dto.OverdueLoanDTO;
 import com.brunopego.library.api.dto.ReturnedLoanDTO;
+import com.brunopego.library.api.export.ExportFormat;
+import com.brunopego.library.api.export.ExportWriter;
+import com.brunopego.library.api.mapper.LoanMapper;
 import com.brunopego.library.model.entity.Book;
 import com.brunopego.library.model.entity.Loan;
 import com.brunopego.library.service.BookService;
 import com.brunopego.library.service.LoanService;
-import org.modelmapper.ModelMapper;
+import com.brunopego.library.service.LoanViewService;
+import com.brunopego.library.service.OverdueLoanService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,7 +47,16 @@ public class LoanController {
     private LoanService loanService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private OverdueLoanService overdueLoanService;
+
+    @Autowired
+    private LoanViewService loanViewService;
+
+    @Value("${library.loans.read-model}")
+    private boolean readModel;
+
+    @Value("${library.loans.return.max-ids}")
+    private int maxReturnIds;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -43,24 +68,88 @@ public class LoanController {
         return  loan.getId();
     }
 
+    @PatchMapping("return")
+    public List<LoanReturnResultDTO> returnBooks(@RequestBody List<Long> ids) {
+        if (ids.size() > maxReturnIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxReturnIds + " loan ids per request");
+        }
+        return loanService.returnAll(ids);
+    }
+
     @PatchMapping("{id}")
-    public void returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto) {
+    public ResponseEntity<Void> returnBook(@PathVariable Long id,
+                                           @RequestBody ReturnedLoanDTO dto,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Loan loan = loanService.getById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        loan.setReturned(dto.getReturned());
-        loanService.update(loan);
+        ETags.checkIfMatch(ifMatch, loan.getVersion());
+        boolean returned = Boolean.TRUE.equals(dto.getReturned());
+        if (returned != Boolean.TRUE.equals(loan.getReturned())) {
+            loan.setReturned(returned);
+            loan = loanService.update(loan);
+        }
+        return ResponseEntity.ok().eTag(ETags.of(loan.getVersion())).build();
     }
 
     @GetMapping
-    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageRequest) {
-        Page<Loan> result = loanService.find(dto, pageRequest);
+    public ResponseEntity<Page<LoanDTO>> find(LoanFilterDTO dto, Pageable pageRequest, WebRequest request) {
+        Page<LoanDTO> page = readModel ? loanViewService.find(dto, pageRequest) : loanService.findDto(dto, pageRequest);
+        String etag = ETags.of(page, LoanController::etagFields);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+
+    @GetMapping(params = "after")
+    public CursorPageDTO<LoanDTO> findAfter(LoanFilterDTO dto,
+                                            @RequestParam String after,
+                                            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Cursor.pageSize(size);
+        Slice<Loan> result = loanService.findAfter(dto, Cursor.decode(after), pageSize);
         List<LoanDTO> list = result
                 .getContent()
                 .stream()
-                .map(entity -> modelMapper.map(entity, LoanDTO.class))
+                .map(LoanMapper::toDto)
                 .collect(Collectors.toList());
+        String next = result.hasNext() ? Cursor.encode(list.get(list.size() - 1).getId()) : null;
+        return new CursorPageDTO<LoanDTO>(list, pageSize, next);
+    }
+
+    @GetMapping("overdue")
+    public Page<OverdueLoanDTO> findOverdue(Pageable pageRequest) {
+        return overdueLoanService.find(pageRequest);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = out -> {
+            try (ExportWriter writer = ExportWriter.create(exportFormat, out,
+                    "id", "customer", "loanDate", "returned", "bookId", "isbn")) {
+                loanService.exportAll(loan -> writer.writeRow(
+                        loan.getId(),
+                        loan.getCustomer(),
+                        loan.getLoanDate(),
+                        loan.getReturned(),
+                        loan.getBook().getId(),
+                        loan.getBook().getIsbn()));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=loans." + exportFormat.getExtension())
+                .body(body);
+    }
 
-        return new PageImpl<LoanDTO>(list, pageRequest, result.getTotalElements());
+    private static List<?> etagFields(LoanDTO loan) {
+        BookDTO book = loan.getBook();
+        if (book == null) {
+            return Arrays.asList(loan.getId(), loan.getCustomer(), loan.getIsbn());
+        }
+        return Arrays.asList(loan.getId(), loan.getCustomer(), loan.getIsbn(),
+                book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn());
     }
 
 }
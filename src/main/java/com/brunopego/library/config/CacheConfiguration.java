@@ -0,0 +1,32 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.model.entity.Book;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CopyingCaffeineCacheManager(CacheConfiguration::copy);
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return cacheManager;
+    }
+
+    static Object copy(Object value) {
+        return value instanceof Book ? ((Book) value).toBuilder().build() : value;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.brunopego.library.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.function.UnaryOperator;
+
+public class CopyingCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final UnaryOperator<Object> copier;
+
+    public CopyingCaffeineCacheManager(UnaryOperator<Object> copier) {
+        this.copier = copier;
+    }
+
+    @Override
+    protected Cache createCaffeineCache(String name) {
+        return new CaffeineCache(name, createNativeCaffeineCache(name), isAllowNullValues()) {
+
+            @Override
+            protected Object toStoreValue(Object userValue) {
+                return super.toStoreValue(copier.apply(userValue));
+            }
+
+            @Override
+            protected Object fromStoreValue(Object storeValue) {
+                return copier.apply(super.fromStoreValue(storeValue));
+            }
+
+        };
+    }
+
+}
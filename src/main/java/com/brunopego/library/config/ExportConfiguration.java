@@ -0,0 +1,47 @@
+package com.brunopego.library.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@Configuration
+public class ExportConfiguration implements WebMvcConfigurer {
+
+    @Value("${library.export.timeout}")
+    private Duration exportTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest && isStreaming(request)) {
+                    ((AsyncWebRequest) request).setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+    }
+
+    private static boolean isStreaming(NativeWebRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(handler instanceof HandlerMethod)) {
+            return false;
+        }
+        ResolvableType returnType = ResolvableType.forMethodParameter(((HandlerMethod) handler).getReturnType());
+        return StreamingResponseBody.class.isAssignableFrom(returnType.toClass())
+                || StreamingResponseBody.class.isAssignableFrom(returnType.getGeneric(0).toClass());
+    }
+
+}
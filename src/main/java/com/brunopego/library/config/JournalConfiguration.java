@@ -0,0 +1,73 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.journal.FsyncPolicy;
+import com.brunopego.library.journal.JournalWriter;
+import com.brunopego.library.journal.LoanJournal;
+import com.brunopego.library.journal.MappedLoanJournal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Configuration
+public class JournalConfiguration {
+
+    public static final String JOURNAL_DROPPED = "library.journal.dropped";
+    public static final String JOURNAL_PENDING = "library.journal.pending";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "library.journal.enabled", havingValue = "true")
+    public MappedLoanJournal loanJournal(@Value("${library.journal.directory}") String directory,
+                                         @Value("${library.journal.segment-size}") DataSize segmentSize,
+                                         @Value("${library.journal.fsync}") FsyncPolicy fsyncPolicy,
+                                         @Value("${library.journal.fsync-interval}") Duration fsyncInterval,
+                                         @Value("${library.journal.queue-capacity}") int capacity,
+                                         @Value("${library.journal.offer-timeout}") Duration offerTimeout) throws IOException {
+        JournalWriter writer = new JournalWriter(Paths.get(directory), segmentSize.toBytes());
+        return new MappedLoanJournal(writer, fsyncPolicy, fsyncInterval, capacity, offerTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "library.journal.enabled", havingValue = "true")
+    public MeterBinder loanJournalMetrics(MappedLoanJournal journal) {
+        return registry -> {
+            FunctionCounter.builder(JOURNAL_DROPPED, journal, MappedLoanJournal::dropped)
+                    .description("Loan events the journal could not queue")
+                    .register(registry);
+            Gauge.builder(JOURNAL_PENDING, journal, MappedLoanJournal::pending)
+                    .description("Loan events waiting to be written")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "library.journal.enabled", havingValue = "true")
+    public HealthIndicator loanJournalHealthIndicator(MappedLoanJournal journal) {
+        return () -> {
+            Health.Builder health = journal.isHealthy() ? Health.up() : Health.down();
+            if (journal.getFailure() != null) {
+                health.withException(journal.getFailure());
+            }
+            return health.withDetail("dropped", journal.dropped())
+                    .withDetail("pending", journal.pending())
+                    .build();
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "library.journal.enabled", havingValue = "false", matchIfMissing = true)
+    public LoanJournal disabledLoanJournal() {
+        return event -> { };
+    }
+
+}
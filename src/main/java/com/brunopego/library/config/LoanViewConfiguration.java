@@ -0,0 +1,17 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.service.LoanViewService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoanViewConfiguration {
+
+    @Bean
+    public LoanViewEndpoint loanViewEndpoint(LoanViewService service,
+                                             @Value("${library.loans.view-rebuild-enabled}") boolean rebuildEnabled) {
+        return new LoanViewEndpoint(service, rebuildEnabled);
+    }
+
+}
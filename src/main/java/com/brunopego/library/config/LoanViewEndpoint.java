@@ -0,0 +1,36 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.api.dto.LoanViewCheckDTO;
+import com.brunopego.library.service.LoanViewService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+
+@Endpoint(id = "loanview")
+public class LoanViewEndpoint {
+
+    private final LoanViewService service;
+    private final boolean rebuildEnabled;
+
+    public LoanViewEndpoint(LoanViewService service, boolean rebuildEnabled) {
+        this.service = service;
+        this.rebuildEnabled = rebuildEnabled;
+    }
+
+    @ReadOperation
+    public LoanViewCheckDTO check() {
+        return service.check();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<LoanViewCheckDTO> rebuild() {
+        if (!rebuildEnabled) {
+            return new WebEndpointResponse<>(HttpStatus.FORBIDDEN.value());
+        }
+        service.rebuild();
+        return new WebEndpointResponse<>(service.check());
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+
+    public static final String SERVICE_TIMER = "library.service";
+    public static final String REPOSITORY_TIMER = "library.repository";
+    public static final String BUSINESS_ERRORS = "library.business.errors";
+
+    private static final String BASE_PACKAGE = "com.brunopego.library.";
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.brunopego.library.service.impl.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return time(SERVICE_TIMER, joinPoint);
+        } catch (BusinessException e) {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            Counter.builder(BUSINESS_ERRORS)
+                    .tag("class", component(ClassUtils.getUserClass(joinPoint.getTarget()), method))
+                    .tag("method", method.getName())
+                    .tag("code", e.getCode().name())
+                    .register(registry)
+                    .increment();
+            throw e;
+        }
+    }
+
+    @Around("execution(public * com.brunopego.library.model.repository.*Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> type = ClassUtils.getUserClass(joinPoint.getTarget());
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = registry.config().clock().monotonicTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.computeIfAbsent(type, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(method, key -> timer(name, type, method, "none"))
+                    .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(name, type, method, e.getClass().getSimpleName())
+                    .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, Class<?> type, Method method, String exception) {
+        return Timer.builder(name)
+                .tag("class", component(type, method))
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+
+    private static String component(Class<?> type, Method method) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            if (candidate.getName().startsWith(BASE_PACKAGE)
+                    && ClassUtils.hasMethod(candidate, method.getName(), method.getParameterTypes())) {
+                return candidate.getSimpleName();
+            }
+        }
+        return type.getSimpleName();
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.service.impl.ActiveLoanIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "library.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfiguration {
+
+    public static final String ACTIVE_LOANS = "library.loans.active";
+
+    @Bean
+    public MetricsAspect metricsAspect(MeterRegistry registry) {
+        return new MetricsAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder loanMetrics(ActiveLoanIndex activeLoans) {
+        return registry -> Gauge.builder(ACTIVE_LOANS, activeLoans, ActiveLoanIndex::size)
+                .description("Books currently on loan")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.brunopego.library.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    private static final String RETRIEVE_MODE = "javax.persistence.cache.retrieveMode";
+    private static final String STORE_MODE = "javax.persistence.cache.storeMode";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReplicaAwareTransactionManager(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(obtainEntityManagerFactory());
+        EntityManager entityManager = holder.getEntityManager();
+        if (routingDataSource.readsFromReplica(definition.isReadOnly())) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            entityManager.setProperty(RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        } else {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.NORMAL);
+            entityManager.setProperty(RETRIEVE_MODE, CacheRetrieveMode.USE);
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.USE);
+        }
+    }
+
+}
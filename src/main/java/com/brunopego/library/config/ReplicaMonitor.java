@@ -0,0 +1,58 @@
+package com.brunopego.library.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ReplicaMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaMonitor.class);
+
+    private final ReplicaRoutingDataSource dataSource;
+    private final long maxLagMillis;
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+
+    public ReplicaMonitor(ReplicaRoutingDataSource dataSource, Duration maxLag) {
+        this.dataSource = dataSource;
+        this.maxLagMillis = maxLag.toMillis();
+        this.primary = new JdbcTemplate(dataSource.getPrimary());
+        dataSource.getReplicas().forEach((name, replica) -> replicas.put(name, new JdbcTemplate(replica)));
+    }
+
+    @Scheduled(fixedDelayString = "${library.datasource.replica-check-millis}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update("update replica_heartbeat set beat = ? where id = 1", new Timestamp(now));
+        } catch (DataAccessException e) {
+            log.warn("Could not write replica heartbeat to primary", e);
+        }
+        replicas.forEach((name, replica) -> {
+            ReplicaStatus status = probe(replica, now);
+            if (status.isHealthy() != dataSource.getStatuses().get(name).isHealthy()) {
+                log.info("Replica {} is now {} (lag {} ms{})", name, status.isHealthy() ? "healthy" : "unhealthy",
+                        status.getLagMillis(), status.getError() == null ? "" : ", " + status.getError());
+            }
+            dataSource.update(name, status);
+        });
+    }
+
+    private ReplicaStatus probe(JdbcTemplate replica, long now) {
+        try {
+            Timestamp beat = replica.queryForObject("select beat from replica_heartbeat where id = 1", Timestamp.class);
+            long lag = Math.max(0, now - beat.getTime());
+            return new ReplicaStatus(lag <= maxLagMillis, lag, lag <= maxLagMillis ? null : "Lag above " + maxLagMillis + " ms");
+        } catch (DataAccessException e) {
+            return new ReplicaStatus(false, null, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.brunopego.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "library.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration stickyFor = Duration.ofSeconds(10);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+
+    }
+
+}
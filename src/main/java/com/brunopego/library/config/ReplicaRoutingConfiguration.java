@@ -0,0 +1,79 @@
+package com.brunopego.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, ReplicaProperties replicaProperties) {
+        DataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Replica> replicaList = replicaProperties.getReplicas();
+        for (int i = 0; i < replicaList.size(); i++) {
+            ReplicaProperties.Replica replica = replicaList.get(i);
+            replicas.put("replica-" + i, DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build());
+        }
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaAwareTransactionManager transactionManager(ReplicaRoutingDataSource routingDataSource,
+                                                             ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReplicaAwareTransactionManager transactionManager = new ReplicaAwareTransactionManager(routingDataSource);
+        customizers.ifAvailable(current -> current.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(ReplicaRoutingDataSource routingDataSource, ReplicaProperties replicaProperties) {
+        return new ReplicaMonitor(routingDataSource, replicaProperties.getMaxLag());
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRoutingDataSource routingDataSource) {
+        return () -> Health.up().withDetails(routingDataSource.getStatuses()).build();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(ReplicaProperties replicaProperties) {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaStickinessFilter(replicaProperties.getStickyFor()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.brunopego.library.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, ReplicaStatus> statuses;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.statuses = Collections.synchronizedMap(new LinkedHashMap<>());
+        replicas.keySet().forEach(name -> statuses.put(name, ReplicaStatus.UNKNOWN));
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        Router router = new Router();
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public static void usePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    public boolean readsFromReplica(boolean readOnly) {
+        return readOnly && PRIMARY_ONLY.get() == null && !healthyReplicas.isEmpty();
+    }
+
+    String route() {
+        if (!readsFromReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    public void update(String replica, ReplicaStatus status) {
+        synchronized (statuses) {
+            statuses.put(replica, status);
+            List<String> healthy = new ArrayList<>(statuses.size());
+            statuses.forEach((name, current) -> {
+                if (current.isHealthy()) {
+                    healthy.add(name);
+                }
+            });
+            healthyReplicas = Collections.unmodifiableList(healthy);
+        }
+    }
+
+    public Map<String, ReplicaStatus> getStatuses() {
+        synchronized (statuses) {
+            return new LinkedHashMap<>(statuses);
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+        if (primary instanceof Closeable) {
+            ((Closeable) primary).close();
+        }
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.brunopego.library.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReplicaStatus {
+
+    static final ReplicaStatus UNKNOWN = new ReplicaStatus(false, null, "Not checked yet");
+
+    private final boolean healthy;
+    private final Long lagMillis;
+    private final String error;
+
+}
@@ -0,0 +1,69 @@
+package com.brunopego.library.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "library-primary-until";
+
+    private static final Set<String> SAFE_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "TRACE"));
+
+    private final Duration stickyFor;
+
+    public ReplicaStickinessFilter(Duration stickyFor) {
+        this.stickyFor = stickyFor;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + stickyFor.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickyFor.getSeconds()));
+            response.addCookie(cookie);
+        }
+        if (!write && stickyUntil(request) <= now) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ReplicaRoutingDataSource.usePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clear();
+        }
+    }
+
+    private static long stickyUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+}
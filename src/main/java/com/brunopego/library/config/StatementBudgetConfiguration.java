@@ -0,0 +1,29 @@
+package com.brunopego.library.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class StatementBudgetConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(
+            @Value("${library.sql.statement-budget}") long budget,
+            @Value("${library.sql.repeat-threshold}") int repeatThreshold) {
+        FilterRegistrationBean<StatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new StatementBudgetFilter(budget, repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+}
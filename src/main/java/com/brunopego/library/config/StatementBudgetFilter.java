@@ -0,0 +1,55 @@
+package com.brunopego.library.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".statementCount";
+    public static final String STATEMENT_REPEATS_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".statementRepeats";
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private final long budget;
+    private final int repeatThreshold;
+
+    public StatementBudgetFilter(long budget, int repeatThreshold) {
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = StatementCounter.current();
+        Map<String, Integer> previous = StatementCounter.startTracking();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = StatementCounter.current() - before;
+            Map<String, Integer> executions = StatementCounter.stopTracking(previous);
+            int repeats = executions.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, statements);
+            request.setAttribute(STATEMENT_REPEATS_ATTRIBUTE, repeats);
+            if (statements > budget) {
+                log.warn("{} {} executed {} SQL statements, budget is {}",
+                        request.getMethod(), request.getRequestURI(), statements, budget);
+            }
+            executions.forEach((sql, count) -> {
+                if (count >= repeatThreshold) {
+                    log.warn("{} {} executed the same SQL statement {} times, likely N+1: {}",
+                            request.getMethod(), request.getRequestURI(), count, sql);
+                }
+            });
+        }
+    }
+
+}
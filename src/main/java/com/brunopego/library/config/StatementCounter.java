@@ -0,0 +1,43 @@
+package com.brunopego.library.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<Map<String, Integer>> EXECUTIONS = new ThreadLocal<>();
+
+    public static long current() {
+        return STATEMENTS.get()[0];
+    }
+
+    public static Map<String, Integer> startTracking() {
+        Map<String, Integer> previous = EXECUTIONS.get();
+        EXECUTIONS.set(new HashMap<>());
+        return previous;
+    }
+
+    public static Map<String, Integer> stopTracking(Map<String, Integer> previous) {
+        Map<String, Integer> executions = EXECUTIONS.get();
+        if (previous == null) {
+            EXECUTIONS.remove();
+        } else {
+            EXECUTIONS.set(previous);
+        }
+        return executions;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        Map<String, Integer> executions = EXECUTIONS.get();
+        if (executions != null) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+}
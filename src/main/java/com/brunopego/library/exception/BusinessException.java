@@ -1,7 +1,19 @@
 package com.brunopego.library.exception;
 
 public class BusinessException extends RuntimeException {
+
+    private final ErrorCode code;
+
     public BusinessException(String msg) {
+        this(ErrorCode.UNSPECIFIED, msg);
+    }
+
+    public BusinessException(ErrorCode code, String msg) {
         super(msg);
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
     }
 }
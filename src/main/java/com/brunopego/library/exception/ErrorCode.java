@@ -0,0 +1,7 @@
+package com.brunopego.library.exception;
+
+public enum ErrorCode {
+    ISBN_ALREADY_REGISTERED,
+    BOOK_ALREADY_LOANED,
+    UNSPECIFIED
+}
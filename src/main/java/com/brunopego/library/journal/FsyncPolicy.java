@@ -0,0 +1,7 @@
+package com.brunopego.library.journal;
+
+public enum FsyncPolicy {
+    NONE,
+    INTERVAL,
+    ALWAYS
+}
@@ -0,0 +1,75 @@
+package com.brunopego.library.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+final class JournalFormat {
+
+    static final int RECORD_SIZE = 32;
+
+    private static final String SEGMENT_PREFIX = "loans-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final LoanEvent.Type[] TYPES = LoanEvent.Type.values();
+
+    private static final int TYPE_OFFSET = 0;
+    private static final int CRC_OFFSET = 4;
+    private static final int LOAN_ID_OFFSET = 8;
+    private static final int BOOK_ID_OFFSET = 16;
+    private static final int TIMESTAMP_OFFSET = 24;
+
+    private JournalFormat() {
+    }
+
+    static String segmentName(long firstRecord) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstRecord, SEGMENT_SUFFIX);
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    static long firstRecord(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static void write(ByteBuffer buffer, int offset, LoanEvent event, CRC32 crc) {
+        byte type = (byte) (event.getType().ordinal() + 1);
+        buffer.putLong(offset + LOAN_ID_OFFSET, event.getLoanId());
+        buffer.putLong(offset + BOOK_ID_OFFSET, event.getBookId());
+        buffer.putLong(offset + TIMESTAMP_OFFSET, event.getTimestamp());
+        buffer.putInt(offset + CRC_OFFSET, checksum(buffer, offset, type, crc));
+        buffer.put(offset + TYPE_OFFSET, type);
+    }
+
+    static LoanEvent read(ByteBuffer buffer, int offset, CRC32 crc) {
+        byte type = buffer.get(offset + TYPE_OFFSET);
+        if (type < 1 || type > TYPES.length || buffer.getInt(offset + CRC_OFFSET) != checksum(buffer, offset, type, crc)) {
+            return null;
+        }
+        return new LoanEvent(TYPES[type - 1],
+                buffer.getLong(offset + LOAN_ID_OFFSET),
+                buffer.getLong(offset + BOOK_ID_OFFSET),
+                buffer.getLong(offset + TIMESTAMP_OFFSET));
+    }
+
+    static int validRecords(ByteBuffer buffer, CRC32 crc) {
+        int records = 0;
+        while ((records + 1) * RECORD_SIZE <= buffer.capacity() && read(buffer, records * RECORD_SIZE, crc) != null) {
+            records++;
+        }
+        return records;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, byte type, CRC32 crc) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(offset + RECORD_SIZE).position(offset + LOAN_ID_OFFSET);
+        crc.reset();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+}
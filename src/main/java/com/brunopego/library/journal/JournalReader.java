@@ -0,0 +1,48 @@
+package com.brunopego.library.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("Journal directory not found: " + directory);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalFormat::isSegment).sorted().collect(Collectors.toList());
+        }
+    }
+
+    public static long read(Path directory, Consumer<LoanEvent> consumer) throws IOException {
+        CRC32 crc = new CRC32();
+        long events = 0;
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int offset = 0; offset + JournalFormat.RECORD_SIZE <= buffer.capacity(); offset += JournalFormat.RECORD_SIZE) {
+                    LoanEvent event = JournalFormat.read(buffer, offset, crc);
+                    if (event == null) {
+                        break;
+                    }
+                    consumer.accept(event);
+                    events++;
+                }
+            }
+        }
+        return events;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.brunopego.library.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class JournalWriter implements Closeable {
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentFirstRecord;
+
+    public JournalWriter(Path directory, long segmentSize) throws IOException {
+        if (segmentSize < JournalFormat.RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + JournalFormat.RECORD_SIZE
+                    + " and " + Integer.MAX_VALUE + " bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) (segmentSize / JournalFormat.RECORD_SIZE * JournalFormat.RECORD_SIZE);
+        Files.createDirectories(directory);
+
+        List<Path> segments = JournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            open(0);
+        } else {
+            open(JournalFormat.firstRecord(segments.get(segments.size() - 1)));
+            buffer.position(JournalFormat.validRecords(buffer, crc) * JournalFormat.RECORD_SIZE);
+        }
+    }
+
+    public long append(LoanEvent event) throws IOException {
+        if (!buffer.hasRemaining()) {
+            rotate();
+        }
+        int offset = buffer.position();
+        JournalFormat.write(buffer, offset, event, crc);
+        buffer.position(offset + JournalFormat.RECORD_SIZE);
+        return segmentFirstRecord + offset / JournalFormat.RECORD_SIZE;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void rotate() throws IOException {
+        long next = segmentFirstRecord + segmentSize / JournalFormat.RECORD_SIZE;
+        buffer.force();
+        channel.close();
+        open(next);
+    }
+
+    private void open(long firstRecord) throws IOException {
+        Path segment = directory.resolve(JournalFormat.segmentName(firstRecord));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentFirstRecord = firstRecord;
+    }
+
+}
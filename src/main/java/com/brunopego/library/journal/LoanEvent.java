@@ -0,0 +1,29 @@
+package com.brunopego.library.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanEvent {
+
+    private Type type;
+    private long loanId;
+    private long bookId;
+    private long timestamp;
+
+    public static LoanEvent of(Type type, Long loanId, Long bookId) {
+        return new LoanEvent(type, loanId, bookId, System.currentTimeMillis());
+    }
+
+    public enum Type {
+        CREATED,
+        RETURNED,
+        REOPENED
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.brunopego.library.journal;
+
+public interface LoanJournal {
+    void append(LoanEvent event);
+}
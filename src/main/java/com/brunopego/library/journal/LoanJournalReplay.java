@@ -0,0 +1,68 @@
+package com.brunopego.library.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class LoanJournalReplay implements Consumer<LoanEvent> {
+
+    private final Map<Long, Long> openLoans = new HashMap<>();
+    private final Map<LoanEvent.Type, Long> counts = new EnumMap<>(LoanEvent.Type.class);
+    private long lastTimestamp;
+
+    public static LoanJournalReplay replay(Path directory) throws IOException {
+        LoanJournalReplay replay = new LoanJournalReplay();
+        JournalReader.read(directory, replay);
+        return replay;
+    }
+
+    @Override
+    public void accept(LoanEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case REOPENED:
+                openLoans.put(event.getLoanId(), event.getBookId());
+                break;
+            case RETURNED:
+                openLoans.remove(event.getLoanId());
+                break;
+        }
+        counts.merge(event.getType(), 1L, Long::sum);
+        lastTimestamp = Math.max(lastTimestamp, event.getTimestamp());
+    }
+
+    public Map<Long, Long> getOpenLoans() {
+        return Collections.unmodifiableMap(openLoans);
+    }
+
+    public Set<Long> getLoanedBookIds() {
+        return new HashSet<>(openLoans.values());
+    }
+
+    public long count(LoanEvent.Type type) {
+        return counts.getOrDefault(type, 0L);
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoanJournalReplay replay = replay(Paths.get(args.length > 0 ? args[0] : "journal"));
+        System.out.printf("created=%d returned=%d reopened=%d open=%d books=%d lastEvent=%d%n",
+                replay.count(LoanEvent.Type.CREATED), replay.count(LoanEvent.Type.RETURNED),
+                replay.count(LoanEvent.Type.REOPENED), replay.openLoans.size(),
+                replay.getLoanedBookIds().size(), replay.lastTimestamp);
+        if (args.length > 1 && "--list".equals(args[1])) {
+            replay.openLoans.forEach((loanId, bookId) -> System.out.println(loanId + "\t" + bookId));
+        }
+    }
+
+}
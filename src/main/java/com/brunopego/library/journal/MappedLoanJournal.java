@@ -0,0 +1,155 @@
+package com.brunopego.library.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MappedLoanJournal implements LoanJournal, Closeable {
+
+    static final int MAX_BATCH = 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(MappedLoanJournal.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final JournalWriter writer;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long pollMillis;
+    private final long offerTimeoutNanos;
+    private final BlockingQueue<LoanEvent> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile Exception failure;
+
+    public MappedLoanJournal(JournalWriter writer, FsyncPolicy fsyncPolicy, Duration fsyncInterval, int capacity,
+                             Duration offerTimeout) {
+        this.writer = writer;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.pollMillis = fsyncPolicy == FsyncPolicy.INTERVAL
+                ? Math.max(1, Math.min(fsyncInterval.toMillis(), IDLE_POLL_MILLIS))
+                : IDLE_POLL_MILLIS;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "loan-journal");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void append(LoanEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(LoanEvent event) {
+        if (!running || failure != null) {
+            drop(event, "journal is not accepting events");
+            return;
+        }
+        try {
+            if (!queue.offer(event, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                drop(event, "queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop(event, "interrupted");
+        }
+    }
+
+    private void drop(LoanEvent event, String reason) {
+        dropped.incrementAndGet();
+        log.error("Loan journal dropped {}: {}", event, reason);
+    }
+
+    private void run() {
+        List<LoanEvent> batch = new ArrayList<>(MAX_BATCH);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        try {
+            while (running || !queue.isEmpty()) {
+                LoanEvent first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    for (LoanEvent event : batch) {
+                        writer.append(event);
+                    }
+                    batch.clear();
+                    dirty = true;
+                }
+                if (dirty && shouldForce(lastForce)) {
+                    writer.force();
+                    lastForce = System.nanoTime();
+                    dirty = false;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            log.error("Loan journal writer stopped, {} events pending", queue.size(), e);
+        } catch (InterruptedException e) {
+            failure = e;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean shouldForce(long lastForce) {
+        switch (fsyncPolicy) {
+            case ALWAYS:
+                return true;
+            case INTERVAL:
+                return System.nanoTime() - lastForce >= fsyncIntervalNanos;
+            default:
+                return false;
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public boolean isHealthy() {
+        return running && failure == null && dropped.get() == 0;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+
+}
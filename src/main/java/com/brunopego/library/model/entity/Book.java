@@ -4,28 +4,56 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.search.annotations.Analyzer;
+import org.hibernate.search.annotations.AnalyzerDef;
+import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Indexed;
+import org.hibernate.search.annotations.TokenFilterDef;
+import org.hibernate.search.annotations.TokenizerDef;
 
 import javax.persistence.*;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Indexed
+@AnalyzerDef(name = Book.TEXT_ANALYZER,
+        tokenizer = @TokenizerDef(factory = StandardTokenizerFactory.class),
+        filters = {
+                @TokenFilterDef(factory = LowerCaseFilterFactory.class),
+                @TokenFilterDef(factory = ASCIIFoldingFilterFactory.class)
+        })
 public class Book {
 
+    public static final String TEXT_ANALYZER = "bookText";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_sequence")
+    @SequenceGenerator(name = "book_sequence", sequenceName = "book_sequence", allocationSize = 100)
     private Long id;
 
     @Column
+    @Field(analyzer = @Analyzer(definition = TEXT_ANALYZER))
     private String title;
 
     @Column
+    @Field(analyzer = @Analyzer(definition = TEXT_ANALYZER))
     private String author;
 
     @Column
     private String isbn;
 
+    @Version
+    private Long version;
+
 }
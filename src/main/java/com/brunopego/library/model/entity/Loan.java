@@ -29,7 +29,11 @@ public class Loan {
     @Column
     private LocalDate loanDate;
 
-    @Column
-    private Boolean returned;
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean returned = false;
+
+    @Version
+    private Long version;
 
 }
@@ -0,0 +1,44 @@
+package com.brunopego.library.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class LoanView {
+
+    @Id
+    private Long loanId;
+
+    @Column(length = 100)
+    private String customer;
+
+    @Column(name = "id_book")
+    private Long bookId;
+
+    @Column
+    private String isbn;
+
+    @Column
+    private String title;
+
+    @Column
+    private String author;
+
+    @Column
+    private LocalDate loanDate;
+
+    @Column(nullable = false)
+    private Boolean returned;
+
+}
@@ -0,0 +1,42 @@
+package com.brunopego.library.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class OverdueLoan {
+
+    @Id
+    private Long loanId;
+
+    @Column(name = "id_book")
+    private Long bookId;
+
+    @Column(length = 100)
+    private String customer;
+
+    @Column
+    private LocalDate loanDate;
+
+    @Column
+    private LocalDate dueDate;
+
+    @Column
+    private LocalDateTime checkedAt;
+
+    @Column
+    private Long generation;
+
+}
@@ -0,0 +1,9 @@
+package com.brunopego.library.model.repository;
+
+public interface BookKey {
+
+    Long getId();
+
+    String getIsbn();
+
+}
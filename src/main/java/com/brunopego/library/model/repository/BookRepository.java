@@ -1,14 +1,55 @@
 package com.brunopego.library.model.repository;
 
 import com.brunopego.library.model.entity.Book;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     boolean existsByIsbn(String isbn);
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Book> findByIsbn(String isbn);
+
+    @Override
+    @QueryHints(value = @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"), forCounting = true)
+    <S extends Book> Page<S> findAll(Example<S> example, Pageable pageable);
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("select b.id as id, b.isbn as isbn from Book b where b.isbn in :isbns")
+    List<BookKey> findKeysByIsbns(@Param("isbns") Collection<String> isbns);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")
+    })
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAll();
+
+    @Query("select b from Book b where b.id > :after " +
+            "and (:title is null or lower(b.title) like :title escape '!') " +
+            "and (:author is null or lower(b.author) like :author escape '!') " +
+            "and (:isbn is null or lower(b.isbn) like :isbn escape '!') " +
+            "order by b.id")
+    Slice<Book> findAfter(@Param("after") Long after,
+                          @Param("title") String title,
+                          @Param("author") String author,
+                          @Param("isbn") String isbn,
+                          Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package com.brunopego.library.model.repository;
+
+import java.time.LocalDate;
+
+public interface LoanKey {
+
+    Long getId();
+
+    LocalDate getLoanDate();
+
+}
@@ -1,21 +1,108 @@
 package com.brunopego.library.model.repository;
 
-import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.model.entity.Loan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
-    @Query("select case when (count(l.id) > 0) then true else false end " +
-            "from Loan l where l.book = :book and (l.returned is null or l.returned is false)")
-    boolean existsByBookAndNotReturned(@Param("book") Book book);
+    String ISBN_OR_CUSTOMER_IDS = "select l.id from loan l join book b on b.id = l.id_book where b.isbn = :isbn " +
+            "union select l.id from loan l where l.customer = :customer";
+
+    @Query("select distinct l.book.id from Loan l where l.returned = false")
+    Set<Long> findLoanedBookIds();
+
+    @Query("select distinct l.book.id from Loan l where l.returned = false and l.book.id in :bookIds")
+    Set<Long> findLoanedBookIdsIn(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query(value = "select new com.brunopego.library.api.dto.LoanDTO(l.id, l.customer, b.id, b.title, b.author, b.isbn) " +
+            "from Loan as l join l.book as b",
+            countQuery = "select count(l) from Loan as l")
+    Page<LoanDTO> findAllDto(Pageable pageable);
+
+    @Query(value = "select new com.brunopego.library.api.dto.LoanDTO(l.id, l.customer, b.id, b.title, b.author, b.isbn) " +
+            "from Loan as l join l.book as b where b.isbn = :isbn",
+            countQuery = "select count(l) from Loan as l join l.book as b where b.isbn = :isbn")
+    Page<LoanDTO> findDtoByBookIsbn(@Param("isbn") String isbn, Pageable pageable);
+
+    @Query(value = "select new com.brunopego.library.api.dto.LoanDTO(l.id, l.customer, b.id, b.title, b.author, b.isbn) " +
+            "from Loan as l join l.book as b where l.customer = :customer",
+            countQuery = "select count(l) from Loan as l where l.customer = :customer")
+    Page<LoanDTO> findDtoByCustomer(@Param("customer") String customer, Pageable pageable);
+
+    @Query(nativeQuery = true,
+            value = "select l.id as id, l.customer as customer, b.id as bookId, b.title as title, " +
+                    "b.author as author, b.isbn as isbn " +
+                    "from (" + ISBN_OR_CUSTOMER_IDS + ") u " +
+                    "join loan l on l.id = u.id join book b on b.id = l.id_book order by l.id",
+            countQuery = "select count(*) from (" + ISBN_OR_CUSTOMER_IDS + ") u")
+    Page<LoanRow> findRowsByBookIsbnUnionCustomer(@Param("isbn") String isbn, @Param("customer") String customer, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l.id as id, l.returned as returned, l.book.id as bookId from Loan l where l.id in :ids")
+    List<LoanStatus> findStatusesForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Loan l set l.returned = true, l.version = l.version + 1 where l.id in :ids and l.returned = false")
+    int markReturned(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.id as id, l.loanDate as loanDate from Loan l " +
+            "where l.returned = false and l.loanDate < :cutoff order by l.returned, l.loanDate, l.id")
+    List<LoanKey> findUnreturnedKeysBefore(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Query("select l.id as id, l.loanDate as loanDate from Loan l " +
+            "where l.returned = false and l.loanDate < :cutoff and l.loanDate >= :lastDate " +
+            "and (l.loanDate > :lastDate or l.id > :lastId) order by l.returned, l.loanDate, l.id")
+    List<LoanKey> findUnreturnedKeysBeforeAfter(@Param("cutoff") LocalDate cutoff,
+                                                @Param("lastDate") LocalDate lastDate,
+                                                @Param("lastId") Long lastId,
+                                                Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")
+    })
+    @Query("select l from Loan l join fetch l.book order by l.id")
+    Stream<Loan> streamAll();
+
+    @Query("select l from Loan as l join fetch l.book where l.id > :after order by l.id")
+    Slice<Loan> findAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select l from Loan as l join fetch l.book as b where l.id > :after and b.isbn = :isbn order by l.id")
+    Slice<Loan> findAfterByBookIsbn(@Param("after") Long after, @Param("isbn") String isbn, Pageable pageable);
+
+    @Query("select l from Loan as l join fetch l.book where l.id > :after and l.customer = :customer order by l.id")
+    Slice<Loan> findAfterByCustomer(@Param("after") Long after, @Param("customer") String customer, Pageable pageable);
+
+    @Query(nativeQuery = true,
+            value = "select u.id from (" +
+                    "select l.id from loan l join book b on b.id = l.id_book where b.isbn = :isbn and l.id > :after " +
+                    "union select l.id from loan l where l.customer = :customer and l.id > :after" +
+                    ") u order by u.id limit :limit")
+    List<Long> findIdsAfterByBookIsbnUnionCustomer(@Param("after") Long after,
+                                                   @Param("isbn") String isbn,
+                                                   @Param("customer") String customer,
+                                                   @Param("limit") int limit);
+
+    @Query("select l from Loan as l join fetch l.book where l.id in :ids order by l.id")
+    List<Loan> findWithBookByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("select l from Loan as l join l.book as b where b.isbn = :isbn or l.customer = :customer")
-    Page<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer, Pageable pageable);
 }
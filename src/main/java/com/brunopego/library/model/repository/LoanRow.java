@@ -0,0 +1,17 @@
+package com.brunopego.library.model.repository;
+
+public interface LoanRow {
+
+    Long getId();
+
+    String getCustomer();
+
+    Long getBookId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+
+}
@@ -0,0 +1,11 @@
+package com.brunopego.library.model.repository;
+
+public interface LoanStatus {
+
+    Long getId();
+
+    Boolean getReturned();
+
+    Long getBookId();
+
+}
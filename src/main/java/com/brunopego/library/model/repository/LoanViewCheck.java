@@ -0,0 +1,11 @@
+package com.brunopego.library.model.repository;
+
+public interface LoanViewCheck {
+
+    Long getLoans();
+
+    Long getMissing();
+
+    Long getStale();
+
+}
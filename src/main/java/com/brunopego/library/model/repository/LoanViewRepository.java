@@ -0,0 +1,59 @@
+package com.brunopego.library.model.repository;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.model.entity.LoanView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoanViewRepository extends JpaRepository<LoanView, Long>, LoanViewRepositoryCustom {
+
+    String SELECT_LOAN_VIEW = "select l.id, l.customer, b.id, b.isbn, b.title, b.author, l.loan_date, l.returned " +
+            "from loan l join book b on b.id = l.id_book";
+
+    String ISBN_OR_CUSTOMER_IDS = "select v.loan_id from loan_view v where v.isbn = :isbn " +
+            "union select v.loan_id from loan_view v where v.customer = :customer";
+
+    @Query(nativeQuery = true,
+            value = "select count(*) as loans, " +
+                    "coalesce(sum(case when v.loan_id is null then 1 else 0 end), 0) as missing, " +
+                    "coalesce(sum(case when v.loan_id is not null and (" +
+                    "v.customer is distinct from l.customer or v.id_book <> b.id or v.isbn is distinct from b.isbn " +
+                    "or v.title is distinct from b.title or v.author is distinct from b.author " +
+                    "or v.loan_date is distinct from l.loan_date or v.returned <> l.returned" +
+                    ") then 1 else 0 end), 0) as stale " +
+                    "from loan l join book b on b.id = l.id_book left join loan_view v on v.loan_id = l.id")
+    LoanViewCheck check();
+
+    @Query(nativeQuery = true,
+            value = "select count(*) from loan_view v where not exists (select 1 from loan l where l.id = v.loan_id)")
+    long countOrphaned();
+
+    @Query(value = "select new com.brunopego.library.api.dto.LoanDTO(v.loanId, v.customer, v.bookId, v.title, v.author, v.isbn) " +
+            "from LoanView as v",
+            countQuery = "select count(v) from LoanView as v")
+    Page<LoanDTO> findAllDto(Pageable pageable);
+
+    @Query(value = "select new com.brunopego.library.api.dto.LoanDTO(v.loanId, v.customer, v.bookId, v.title, v.author, v.isbn) " +
+            "from LoanView as v where v.isbn = :isbn",
+            countQuery = "select count(v) from LoanView as v where v.isbn = :isbn")
+    Page<LoanDTO> findDtoByIsbn(@Param("isbn") String isbn, Pageable pageable);
+
+    @Query(value = "select new com.brunopego.library.api.dto.LoanDTO(v.loanId, v.customer, v.bookId, v.title, v.author, v.isbn) " +
+            "from LoanView as v where v.customer = :customer",
+            countQuery = "select count(v) from LoanView as v where v.customer = :customer")
+    Page<LoanDTO> findDtoByCustomer(@Param("customer") String customer, Pageable pageable);
+
+    @Query(nativeQuery = true,
+            value = "select v.loan_id as id, v.customer as customer, v.id_book as bookId, v.title as title, " +
+                    "v.author as author, v.isbn as isbn " +
+                    "from (" + ISBN_OR_CUSTOMER_IDS + ") u " +
+                    "join loan_view v on v.loan_id = u.loan_id order by v.loan_id",
+            countQuery = "select count(*) from (" + ISBN_OR_CUSTOMER_IDS + ") u")
+    Page<LoanRow> findRowsByIsbnUnionCustomer(@Param("isbn") String isbn, @Param("customer") String customer, Pageable pageable);
+
+}
@@ -0,0 +1,15 @@
+package com.brunopego.library.model.repository;
+
+import java.util.Collection;
+
+public interface LoanViewRepositoryCustom {
+
+    int refreshLoans(Collection<Long> ids);
+
+    int refreshBook(Long bookId);
+
+    int deleteAllRows();
+
+    int insertAllRows();
+
+}
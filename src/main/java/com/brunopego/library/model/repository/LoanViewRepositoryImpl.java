@@ -0,0 +1,64 @@
+package com.brunopego.library.model.repository;
+
+import com.brunopego.library.model.entity.LoanView;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+public class LoanViewRepositoryImpl implements LoanViewRepositoryCustom {
+
+    static final String REFRESH_LOANS = "merge into loan_view (loan_id, customer, id_book, isbn, title, author, loan_date, returned) " +
+            "key (loan_id) " + LoanViewRepository.SELECT_LOAN_VIEW + " where l.id in (:ids)";
+
+    static final String REFRESH_BOOK = "update loan_view v set (isbn, title, author) = " +
+            "(select b.isbn, b.title, b.author from book b where b.id = :bookId) where v.id_book = :bookId";
+
+    static final String DELETE_ALL_ROWS = "delete from loan_view";
+
+    static final String INSERT_ALL_ROWS = "insert into loan_view (loan_id, customer, id_book, isbn, title, author, loan_date, returned) " +
+            LoanViewRepository.SELECT_LOAN_VIEW;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int refreshLoans(Collection<Long> ids) {
+        return execute(REFRESH_LOANS, "ids", ids);
+    }
+
+    @Override
+    @Transactional
+    public int refreshBook(Long bookId) {
+        return execute(REFRESH_BOOK, "bookId", bookId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllRows() {
+        return query(DELETE_ALL_ROWS).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int insertAllRows() {
+        return query(INSERT_ALL_ROWS).executeUpdate();
+    }
+
+    private int execute(String sql, String parameter, Object value) {
+        return query(sql)
+                .setParameter(parameter, value)
+                .executeUpdate();
+    }
+
+    private NativeQuery<?> query(String sql) {
+        entityManager.flush();
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(LoanView.class);
+    }
+
+}
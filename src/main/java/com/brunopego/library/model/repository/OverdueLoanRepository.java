@@ -0,0 +1,22 @@
+package com.brunopego.library.model.repository;
+
+import com.brunopego.library.api.dto.OverdueLoanDTO;
+import com.brunopego.library.model.entity.OverdueLoan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OverdueLoanRepository extends JpaRepository<OverdueLoan, Long>, OverdueLoanRepositoryCustom {
+
+    @Query(nativeQuery = true, value = "select next value for overdue_loan_generation_seq")
+    long nextGeneration();
+
+    @Query(value = "select new com.brunopego.library.api.dto.OverdueLoanDTO(o.loanId, o.customer, b.isbn, b.title, o.loanDate, o.dueDate) " +
+            "from OverdueLoan as o, Book as b where b.id = o.bookId order by o.dueDate, o.loanId",
+            countQuery = "select count(o) from OverdueLoan as o")
+    Page<OverdueLoanDTO> findAllDto(Pageable pageable);
+
+}
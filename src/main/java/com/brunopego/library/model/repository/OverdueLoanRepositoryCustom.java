@@ -0,0 +1,12 @@
+package com.brunopego.library.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OverdueLoanRepositoryCustom {
+
+    int upsert(List<Long> ids, int period, LocalDateTime checkedAt, long generation);
+
+    int deleteOtherGenerations(long generation, int limit);
+
+}
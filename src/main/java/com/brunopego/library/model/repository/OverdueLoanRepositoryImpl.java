@@ -0,0 +1,51 @@
+package com.brunopego.library.model.repository;
+
+import com.brunopego.library.model.entity.OverdueLoan;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OverdueLoanRepositoryImpl implements OverdueLoanRepositoryCustom {
+
+    static final String UPSERT = "merge into overdue_loan (loan_id, id_book, customer, loan_date, due_date, checked_at, generation) " +
+            "key (loan_id) " +
+            "select l.id, l.id_book, l.customer, l.loan_date, dateadd(day, :period, l.loan_date), :checkedAt, :generation " +
+            "from loan l where l.id in (:ids) and l.returned = false";
+
+    static final String DELETE_OTHER_GENERATIONS = "delete from overdue_loan where generation <> :generation limit :limit";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int upsert(List<Long> ids, int period, LocalDateTime checkedAt, long generation) {
+        return query(UPSERT)
+                .setParameter("ids", ids)
+                .setParameter("period", period)
+                .setParameter("checkedAt", checkedAt)
+                .setParameter("generation", generation)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteOtherGenerations(long generation, int limit) {
+        return query(DELETE_OTHER_GENERATIONS)
+                .setParameter("generation", generation)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private NativeQuery<?> query(String sql) {
+        entityManager.flush();
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(OverdueLoan.class);
+    }
+
+}
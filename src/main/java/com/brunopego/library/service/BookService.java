@@ -1,10 +1,15 @@
 package com.brunopego.library.service;
 
+import com.brunopego.library.api.dto.BookAvailabilityDTO;
+import com.brunopego.library.api.dto.BookBatchResultDTO;
 import com.brunopego.library.model.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
     Book save(Book any);
@@ -17,5 +22,15 @@ public interface BookService {
 
     Page<Book> find(Book filter, Pageable pageRequest);
 
+    Slice<Book> findAfter(Book filter, long afterId, int size);
+
+    Page<Book> search(String text, Pageable pageRequest);
+
     Optional<Book> getBookByIsbn(String isbn);
+
+    List<BookBatchResultDTO> saveAll(List<Book> books);
+
+    void exportAll(Consumer<Book> consumer);
+
+    List<BookAvailabilityDTO> getAvailability(List<String> isbns);
 }
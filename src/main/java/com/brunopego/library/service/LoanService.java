@@ -1,11 +1,16 @@
 package com.brunopego.library.service;
 
+import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanReturnResultDTO;
 import com.brunopego.library.model.entity.Loan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LoanService {
     Loan save(Loan loan);
@@ -14,5 +19,11 @@ public interface LoanService {
 
     Loan update(Loan loan);
 
-    Page<Loan> find(LoanFilterDTO filterDTO, Pageable pageable);
+    List<LoanReturnResultDTO> returnAll(List<Long> ids);
+
+    Page<LoanDTO> findDto(LoanFilterDTO filterDTO, Pageable pageable);
+
+    Slice<Loan> findAfter(LoanFilterDTO filterDTO, long afterId, int size);
+
+    void exportAll(Consumer<Loan> consumer);
 }
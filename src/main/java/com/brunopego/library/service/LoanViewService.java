@@ -0,0 +1,15 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanViewCheckDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface LoanViewService {
+    Page<LoanDTO> find(LoanFilterDTO filterDTO, Pageable pageable);
+
+    int rebuild();
+
+    LoanViewCheckDTO check();
+}
@@ -0,0 +1,13 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.api.dto.OverdueLoanDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+
+public interface OverdueLoanService {
+    int refresh(LocalDate today);
+
+    Page<OverdueLoanDTO> find(Pageable pageable);
+}
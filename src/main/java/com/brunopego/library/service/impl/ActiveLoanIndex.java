@@ -0,0 +1,74 @@
+package com.brunopego.library.service.impl;
+
+import com.brunopego.library.model.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ActiveLoanIndex {
+
+    private final Set<Long> loanedBooks = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private LoanRepository repository;
+
+    @PostConstruct
+    public void rebuild() {
+        Set<Long> bookIds = repository.findLoanedBookIds();
+        loanedBooks.retainAll(bookIds);
+        loanedBooks.addAll(bookIds);
+    }
+
+    public boolean isLoaned(Long bookId) {
+        return loanedBooks.contains(bookId);
+    }
+
+    public boolean reserve(Long bookId) {
+        return loanedBooks.add(bookId);
+    }
+
+    public void release(Long bookId) {
+        loanedBooks.remove(bookId);
+    }
+
+    public boolean reserveUntilRollback(Long bookId) {
+        if (!reserve(bookId)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(bookId);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public void releaseOnCommit(Long bookId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    release(bookId);
+                }
+            });
+        } else {
+            release(bookId);
+        }
+    }
+
+    public int size() {
+        return loanedBooks.size();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.brunopego.library.service.impl;
+
+import com.brunopego.library.model.entity.Book;
+import org.hibernate.search.jpa.Search;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+@Component
+@ConditionalOnProperty(name = "library.search.reindex-on-startup", havingValue = "true", matchIfMissing = true)
+public class BookSearchIndexer {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindex() throws InterruptedException {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Search.getFullTextEntityManager(entityManager)
+                    .createIndexer(Book.class)
+                    .startAndWait();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+}
@@ -1,38 +1,104 @@
 package com.brunopego.library.service.impl;
 
+import com.brunopego.library.api.dto.BookAvailabilityDTO;
+import com.brunopego.library.api.dto.BookBatchResultDTO;
+import com.brunopego.library.config.ReplicaRoutingDataSource;
 import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.exception.ErrorCode;
 import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookKey;
 import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanViewRepository;
 import com.brunopego.library.service.BookService;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.query.dsl.QueryBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    public static final String BOOKS_CACHE = "books";
+    public static final String BOOKS_BY_ISBN_CACHE = "booksByIsbn";
+
+    static final String UNIQUE_ISBN_CONSTRAINT = "UK_BOOK_ISBN";
+
+    static final int IMPORT_CHUNK_SIZE = 1000;
+    static final int EXPORT_CHUNK_SIZE = 1000;
+    static final int AVAILABILITY_CHUNK_SIZE = 1000;
+
     @Autowired
     private BookRepository repository;
 
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanViewRepository loanViewRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SingleFlight<Long, Optional<Book>> loadsById = new SingleFlight<>();
+    private final SingleFlight<String, Optional<Book>> loadsByIsbn = new SingleFlight<>();
+
     @Override
+    @Caching(put = {
+            @CachePut(cacheNames = BOOKS_CACHE, key = "#result.id"),
+            @CachePut(cacheNames = BOOKS_BY_ISBN_CACHE, key = "#result.isbn", unless = "#result.isbn == null")
+    })
     public Book save(Book book) {
-        if(repository.existsByIsbn(book.getIsbn())) {
-            throw new BusinessException("Isbn já cadastrado");
+        try {
+            return repository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
         }
-        return repository.save(book);
     }
 
     @Override
+    @Cacheable(cacheNames = BOOKS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Book> getById(Long id) {
-        return repository.findById(id);
+        return loadsById.load(id, () -> ReplicaRoutingDataSource.onPrimary(() -> repository.findById(id)));
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BOOKS_CACHE, key = "#book.id"),
+            @CacheEvict(cacheNames = BOOKS_BY_ISBN_CACHE, key = "#book.isbn", condition = "#book.isbn != null")
+    })
     public void delete(Book book) {
         if(book == null || book.getId() == null) {
             throw new IllegalArgumentException();
@@ -41,14 +107,22 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Caching(put = {
+            @CachePut(cacheNames = BOOKS_CACHE, key = "#result.id"),
+            @CachePut(cacheNames = BOOKS_BY_ISBN_CACHE, key = "#result.isbn", unless = "#result.isbn == null")
+    })
+    @Transactional
     public Book update(Book book) {
         if(book == null || book.getId() == null) {
             throw new IllegalArgumentException();
         }
-        return repository.save(book);
+        Book updatedBook = repository.save(book);
+        loanViewRepository.refreshBook(updatedBook.getId());
+        return updatedBook;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Book> find(Book filter, Pageable pageRequest) {
         Example<Book> example = Example.of(filter,
                 ExampleMatcher
@@ -60,8 +134,165 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Book> findAfter(Book filter, long afterId, int size) {
+        return repository.findAfter(afterId,
+                containing(filter.getTitle()),
+                containing(filter.getAuthor()),
+                containing(filter.getIsbn()),
+                PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Book> search(String text, Pageable pageRequest) {
+        FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
+        QueryBuilder queryBuilder = fullTextEntityManager.getSearchFactory()
+                .buildQueryBuilder()
+                .forEntity(Book.class)
+                .get();
+        Query query = queryBuilder
+                .simpleQueryString()
+                .onField("title").boostedTo(2f)
+                .andField("author")
+                .withAndAsDefaultOperator()
+                .matching(text)
+                .createQuery();
+
+        FullTextQuery fullTextQuery = fullTextEntityManager.createFullTextQuery(query, Book.class);
+        fullTextQuery.setFirstResult((int) pageRequest.getOffset());
+        fullTextQuery.setMaxResults(pageRequest.getPageSize());
+        @SuppressWarnings("unchecked")
+        List<Book> content = fullTextQuery.getResultList();
+        return new PageImpl<Book>(content, pageRequest, fullTextQuery.getResultSize());
+    }
+
+    private static String containing(String value) {
+        if (value == null) {
+            return null;
+        }
+        String escaped = value.toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    @Override
+    @Cacheable(cacheNames = BOOKS_BY_ISBN_CACHE, key = "#isbn", unless = "#result == null")
     public Optional<Book> getBookByIsbn(String isbn) {
-        return repository.findByIsbn(isbn);
+        return loadsByIsbn.load(isbn, () -> ReplicaRoutingDataSource.onPrimary(() -> repository.findByIsbn(isbn)));
+    }
+
+    @Override
+    @Transactional
+    public List<BookBatchResultDTO> saveAll(List<Book> books) {
+        List<String> isbns = books.stream().map(Book::getIsbn).distinct().collect(Collectors.toList());
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < isbns.size(); from += IMPORT_CHUNK_SIZE) {
+            existing.addAll(repository.findExistingIsbns(isbns.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, isbns.size()))));
+        }
+        Set<String> seen = new HashSet<>();
+
+        List<BookBatchResultDTO> results = new ArrayList<>(books.size());
+        List<Book> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<BookBatchResultDTO> pending = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        for (Book book : books) {
+            if (existing.contains(book.getIsbn())) {
+                results.add(rejected(book, "Isbn já cadastrado"));
+            } else if (!seen.add(book.getIsbn())) {
+                results.add(rejected(book, "Isbn repetido no lote"));
+            } else {
+                BookBatchResultDTO result = BookBatchResultDTO.builder()
+                        .isbn(book.getIsbn())
+                        .status(BookBatchResultDTO.Status.CREATED)
+                        .build();
+                results.add(result);
+                pending.add(result);
+                chunk.add(book);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    insertChunk(chunk, pending);
+                }
+            }
+        }
+        insertChunk(chunk, pending);
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Book> consumer) {
+        try (Stream<Book> books = repository.streamAll()) {
+            int count = 0;
+            for (Iterator<Book> iterator = books.iterator(); iterator.hasNext(); ) {
+                consumer.accept(iterator.next());
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookAvailabilityDTO> getAvailability(List<String> isbns) {
+        Map<String, BookAvailabilityDTO> results = new LinkedHashMap<>();
+        isbns.stream().filter(Objects::nonNull).forEach(isbn -> results.computeIfAbsent(isbn, key ->
+                BookAvailabilityDTO.builder().isbn(key).status(BookAvailabilityDTO.Status.NOT_FOUND).build()));
+
+        List<String> distinctIsbns = new ArrayList<>(results.keySet());
+        for (int from = 0; from < distinctIsbns.size(); from += AVAILABILITY_CHUNK_SIZE) {
+            List<String> chunk = distinctIsbns.subList(from, Math.min(from + AVAILABILITY_CHUNK_SIZE, distinctIsbns.size()));
+            List<BookKey> books = repository.findKeysByIsbns(chunk);
+            if (books.isEmpty()) {
+                continue;
+            }
+            Set<Long> loaned = loanRepository.findLoanedBookIdsIn(
+                    books.stream().map(BookKey::getId).collect(Collectors.toList()));
+            for (BookKey book : books) {
+                BookAvailabilityDTO result = results.get(book.getIsbn());
+                result.setId(book.getId());
+                result.setStatus(loaned.contains(book.getId())
+                        ? BookAvailabilityDTO.Status.LOANED
+                        : BookAvailabilityDTO.Status.AVAILABLE);
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    private void insertChunk(List<Book> chunk, List<BookBatchResultDTO> pending) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Book> saved;
+        try {
+            saved = repository.saveAll(chunk);
+            repository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
+        for (int i = 0; i < saved.size(); i++) {
+            pending.get(i).setId(saved.get(i).getId());
+        }
+        entityManager.clear();
+        chunk.clear();
+        pending.clear();
+    }
+
+    private RuntimeException translate(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        if (cause.getMessage() != null && cause.getMessage().toUpperCase().contains(UNIQUE_ISBN_CONSTRAINT)) {
+            return new BusinessException(ErrorCode.ISBN_ALREADY_REGISTERED, "Isbn já cadastrado");
+        }
+        return e;
+    }
+
+    private BookBatchResultDTO rejected(Book book, String error) {
+        return BookBatchResultDTO.builder()
+                .isbn(book.getIsbn())
+                .status(BookBatchResultDTO.Status.REJECTED)
+                .errors(Arrays.asList(error))
+                .build();
     }
 
 }
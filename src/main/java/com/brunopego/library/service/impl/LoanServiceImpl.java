@@ -1,29 +1,79 @@
 package com.brunopego.library.service.impl;
 
+import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanReturnResultDTO;
 import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.exception.ErrorCode;
+import com.brunopego.library.journal.LoanEvent;
+import com.brunopego.library.journal.LoanJournal;
 import com.brunopego.library.model.entity.Loan;
 import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanRow;
+import com.brunopego.library.model.repository.LoanStatus;
+import com.brunopego.library.model.repository.LoanViewRepository;
 import com.brunopego.library.service.LoanService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class LoanServiceImpl implements LoanService {
 
+    static final int EXPORT_CHUNK_SIZE = 1000;
+    static final int RETURN_CHUNK_SIZE = 500;
+    static final String OPEN_BOOK_CONSTRAINT = "UK_LOAN_OPEN_BOOK";
+
     @Autowired
     private LoanRepository repository;
 
+    @Autowired
+    private LoanViewRepository loanViewRepository;
+
+    @Autowired
+    private ActiveLoanIndex activeLoans;
+
+    @Autowired
+    private LoanJournal journal;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
+    @Transactional
     public Loan save(Loan loan) {
-        if(repository.existsByBookAndNotReturned(loan.getBook())) {
-            throw new BusinessException("Book already loaned");
+        Long bookId = loan.getBook().getId();
+        if(!activeLoans.reserveUntilRollback(bookId)) {
+            throw new BusinessException(ErrorCode.BOOK_ALREADY_LOANED, "Book already loaned");
+        }
+        Loan savedLoan = saveAndFlush(loan);
+        loanViewRepository.refreshLoans(Collections.singletonList(savedLoan.getId()));
+        journal.append(LoanEvent.of(LoanEvent.Type.CREATED, savedLoan.getId(), bookId));
+        if (Boolean.TRUE.equals(savedLoan.getReturned())) {
+            activeLoans.releaseOnCommit(bookId);
+            journal.append(LoanEvent.of(LoanEvent.Type.RETURNED, savedLoan.getId(), bookId));
         }
-        return repository.save(loan);
+        return savedLoan;
     }
 
     @Override
@@ -32,12 +82,129 @@ public class LoanServiceImpl implements LoanService {
     }
 
     @Override
+    @Transactional
     public Loan update(Loan loan) {
-        return repository.save(loan);
+        Long bookId = loan.getBook().getId();
+        boolean returned = Boolean.TRUE.equals(loan.getReturned());
+        if (!returned && !activeLoans.reserveUntilRollback(bookId)) {
+            throw new BusinessException(ErrorCode.BOOK_ALREADY_LOANED, "Book already loaned");
+        }
+        Loan updatedLoan = saveAndFlush(loan);
+        loanViewRepository.refreshLoans(Collections.singletonList(updatedLoan.getId()));
+        if (returned) {
+            activeLoans.releaseOnCommit(bookId);
+            journal.append(LoanEvent.of(LoanEvent.Type.RETURNED, updatedLoan.getId(), bookId));
+        } else {
+            journal.append(LoanEvent.of(LoanEvent.Type.REOPENED, updatedLoan.getId(), bookId));
+        }
+        return updatedLoan;
+    }
+
+    private Loan saveAndFlush(Loan loan) {
+        try {
+            Loan saved = repository.save(loan);
+            repository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            Throwable cause = e.getMostSpecificCause();
+            if (cause.getMessage() != null && cause.getMessage().toUpperCase().contains(OPEN_BOOK_CONSTRAINT)) {
+                throw new BusinessException(ErrorCode.BOOK_ALREADY_LOANED, "Book already loaned");
+            }
+            throw e;
+        }
     }
 
     @Override
-    public Page<Loan> find(LoanFilterDTO filterDTO, Pageable pageable) {
-        return repository.findByBookIsbnOrCustomer(filterDTO.getIsbn(), filterDTO.getCustomer(), pageable);
+    @Transactional
+    public List<LoanReturnResultDTO> returnAll(List<Long> ids) {
+        Map<Long, LoanReturnResultDTO> results = new LinkedHashMap<>();
+        ids.stream().filter(Objects::nonNull).forEach(id -> results.computeIfAbsent(id, key ->
+                LoanReturnResultDTO.builder().id(key).status(LoanReturnResultDTO.Status.NOT_FOUND).build()));
+
+        List<Long> distinctIds = new ArrayList<>(results.keySet());
+        for (int from = 0; from < distinctIds.size(); from += RETURN_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + RETURN_CHUNK_SIZE, distinctIds.size()));
+            List<Long> openIds = new ArrayList<>(chunk.size());
+            List<Long> bookIds = new ArrayList<>(chunk.size());
+            for (LoanStatus loan : repository.findStatusesForUpdate(chunk)) {
+                LoanReturnResultDTO result = results.get(loan.getId());
+                if (Boolean.TRUE.equals(loan.getReturned())) {
+                    result.setStatus(LoanReturnResultDTO.Status.ALREADY_RETURNED);
+                } else {
+                    result.setStatus(LoanReturnResultDTO.Status.RETURNED);
+                    openIds.add(loan.getId());
+                    bookIds.add(loan.getBookId());
+                }
+            }
+            if (!openIds.isEmpty()) {
+                repository.markReturned(openIds);
+                loanViewRepository.refreshLoans(openIds);
+                bookIds.forEach(activeLoans::releaseOnCommit);
+                for (int i = 0; i < openIds.size(); i++) {
+                    journal.append(LoanEvent.of(LoanEvent.Type.RETURNED, openIds.get(i), bookIds.get(i)));
+                }
+            }
+        }
+        return new ArrayList<>(results.values());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LoanDTO> findDto(LoanFilterDTO filterDTO, Pageable pageable) {
+        String isbn = StringUtils.hasText(filterDTO.getIsbn()) ? filterDTO.getIsbn() : null;
+        String customer = StringUtils.hasText(filterDTO.getCustomer()) ? filterDTO.getCustomer() : null;
+        if (isbn == null && customer == null) {
+            return repository.findAllDto(pageable);
+        }
+        if (customer == null) {
+            return repository.findDtoByBookIsbn(isbn, pageable);
+        }
+        if (isbn == null) {
+            return repository.findDtoByCustomer(customer, pageable);
+        }
+        return repository
+                .findRowsByBookIsbnUnionCustomer(isbn, customer, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(LoanServiceImpl::toDto);
+    }
+
+    private static LoanDTO toDto(LoanRow row) {
+        return new LoanDTO(row.getId(), row.getCustomer(), row.getBookId(), row.getTitle(), row.getAuthor(), row.getIsbn());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Loan> findAfter(LoanFilterDTO filterDTO, long afterId, int size) {
+        String isbn = StringUtils.hasText(filterDTO.getIsbn()) ? filterDTO.getIsbn() : null;
+        String customer = StringUtils.hasText(filterDTO.getCustomer()) ? filterDTO.getCustomer() : null;
+        PageRequest pageRequest = PageRequest.of(0, size);
+        if (isbn == null && customer == null) {
+            return repository.findAfter(afterId, pageRequest);
+        }
+        if (customer == null) {
+            return repository.findAfterByBookIsbn(afterId, isbn, pageRequest);
+        }
+        if (isbn == null) {
+            return repository.findAfterByCustomer(afterId, customer, pageRequest);
+        }
+        List<Long> ids = repository.findIdsAfterByBookIsbnUnionCustomer(afterId, isbn, customer, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        List<Loan> loans = pageIds.isEmpty() ? Collections.emptyList() : repository.findWithBookByIdIn(pageIds);
+        return new SliceImpl<>(loans, pageRequest, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Loan> consumer) {
+        try (Stream<Loan> loans = repository.streamAll()) {
+            int count = 0;
+            for (Iterator<Loan> iterator = loans.iterator(); iterator.hasNext(); ) {
+                consumer.accept(iterator.next());
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
 }
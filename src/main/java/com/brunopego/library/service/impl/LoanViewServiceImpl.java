@@ -0,0 +1,66 @@
+package com.brunopego.library.service.impl;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanViewCheckDTO;
+import com.brunopego.library.model.repository.LoanRow;
+import com.brunopego.library.model.repository.LoanViewCheck;
+import com.brunopego.library.model.repository.LoanViewRepository;
+import com.brunopego.library.service.LoanViewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+@Service
+public class LoanViewServiceImpl implements LoanViewService {
+
+    @Autowired
+    private LoanViewRepository repository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LoanDTO> find(LoanFilterDTO filterDTO, Pageable pageable) {
+        String isbn = StringUtils.hasText(filterDTO.getIsbn()) ? filterDTO.getIsbn() : null;
+        String customer = StringUtils.hasText(filterDTO.getCustomer()) ? filterDTO.getCustomer() : null;
+        if (isbn == null && customer == null) {
+            return repository.findAllDto(pageable);
+        }
+        if (customer == null) {
+            return repository.findDtoByIsbn(isbn, pageable);
+        }
+        if (isbn == null) {
+            return repository.findDtoByCustomer(customer, pageable);
+        }
+        return repository
+                .findRowsByIsbnUnionCustomer(isbn, customer, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(LoanViewServiceImpl::toDto);
+    }
+
+    private static LoanDTO toDto(LoanRow row) {
+        return new LoanDTO(row.getId(), row.getCustomer(), row.getBookId(), row.getTitle(), row.getAuthor(), row.getIsbn());
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        repository.deleteAllRows();
+        return repository.insertAllRows();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoanViewCheckDTO check() {
+        LoanViewCheck check = repository.check();
+        return LoanViewCheckDTO.builder()
+                .loans(check.getLoans())
+                .missing(check.getMissing())
+                .stale(check.getStale())
+                .orphaned(repository.countOrphaned())
+                .build();
+    }
+
+}
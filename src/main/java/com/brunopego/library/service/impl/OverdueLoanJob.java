@@ -0,0 +1,21 @@
+package com.brunopego.library.service.impl;
+
+import com.brunopego.library.service.OverdueLoanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class OverdueLoanJob {
+
+    @Autowired
+    private OverdueLoanService service;
+
+    @Scheduled(cron = "${library.loans.overdue.cron}")
+    public void refresh() {
+        service.refresh(LocalDate.now());
+    }
+
+}
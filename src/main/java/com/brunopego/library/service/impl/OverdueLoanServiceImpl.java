@@ -0,0 +1,63 @@
+package com.brunopego.library.service.impl;
+
+import com.brunopego.library.api.dto.OverdueLoanDTO;
+import com.brunopego.library.model.repository.LoanKey;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.OverdueLoanRepository;
+import com.brunopego.library.service.OverdueLoanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class OverdueLoanServiceImpl implements OverdueLoanService {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private OverdueLoanRepository repository;
+
+    @Value("${library.loans.period-days}")
+    private int periodDays;
+
+    @Value("${library.loans.overdue.chunk-size}")
+    private int chunkSize;
+
+    @Override
+    public int refresh(LocalDate today) {
+        LocalDate cutoff = today.minusDays(periodDays);
+        LocalDateTime checkedAt = LocalDateTime.now();
+        long generation = repository.nextGeneration();
+        Pageable chunk = PageRequest.of(0, chunkSize);
+
+        int overdue = 0;
+        List<LoanKey> keys = loanRepository.findUnreturnedKeysBefore(cutoff, chunk);
+        while (!keys.isEmpty()) {
+            List<Long> ids = keys.stream().map(LoanKey::getId).collect(Collectors.toList());
+            overdue += repository.upsert(ids, periodDays, checkedAt, generation);
+            LoanKey last = keys.get(keys.size() - 1);
+            keys = loanRepository.findUnreturnedKeysBeforeAfter(cutoff, last.getLoanDate(), last.getId(), chunk);
+        }
+
+        int purged;
+        do {
+            purged = repository.deleteOtherGenerations(generation, chunkSize);
+        } while (purged == chunkSize);
+        return overdue;
+    }
+
+    @Override
+    public Page<OverdueLoanDTO> find(Pageable pageable) {
+        return repository.findAllDto(pageable);
+    }
+
+}
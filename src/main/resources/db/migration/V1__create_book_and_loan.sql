@@ -0,0 +1,18 @@
+create sequence book_sequence start with 1 increment by 100;
+
+create table book (
+    id bigint not null,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    primary key (id)
+);
+
+create table loan (
+    id bigint generated by default as identity,
+    customer varchar(100),
+    id_book bigint,
+    loan_date date,
+    returned boolean,
+    primary key (id)
+);
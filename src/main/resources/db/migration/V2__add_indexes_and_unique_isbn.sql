@@ -0,0 +1,9 @@
+alter table book add constraint uk_book_isbn unique (isbn);
+
+create index idx_loan_customer on loan (customer);
+
+create index idx_loan_book on loan (id_book);
+
+create index idx_loan_returned_loan_date on loan (returned, loan_date);
+
+alter table loan add constraint fk_loan_book foreign key (id_book) references book (id);
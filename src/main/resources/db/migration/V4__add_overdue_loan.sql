@@ -0,0 +1,23 @@
+update loan set returned = false where returned is null;
+
+alter table loan alter column returned set default false;
+
+alter table loan alter column returned set not null;
+
+drop index idx_loan_returned_loan_date;
+
+create index idx_loan_returned_loan_date_id on loan (returned, loan_date, id);
+
+create table overdue_loan (
+    loan_id bigint not null,
+    id_book bigint not null,
+    customer varchar(100),
+    loan_date date not null,
+    due_date date not null,
+    checked_at timestamp not null,
+    primary key (loan_id)
+);
+
+create index idx_overdue_loan_due_date on overdue_loan (due_date);
+
+create index idx_overdue_loan_checked_at on overdue_loan (checked_at);
@@ -0,0 +1,21 @@
+create table loan_view (
+    loan_id bigint not null,
+    customer varchar(100),
+    id_book bigint not null,
+    isbn varchar(255),
+    title varchar(255),
+    author varchar(255),
+    loan_date date,
+    returned boolean not null,
+    primary key (loan_id)
+);
+
+create index idx_loan_view_isbn on loan_view (isbn);
+
+create index idx_loan_view_customer on loan_view (customer);
+
+create index idx_loan_view_id_book on loan_view (id_book);
+
+insert into loan_view (loan_id, customer, id_book, isbn, title, author, loan_date, returned)
+select l.id, l.customer, b.id, b.isbn, b.title, b.author, l.loan_date, l.returned
+from loan l join book b on b.id = l.id_book;
@@ -0,0 +1,7 @@
+create table replica_heartbeat (
+    id int not null,
+    beat timestamp not null,
+    primary key (id)
+);
+
+insert into replica_heartbeat (id, beat) values (1, current_timestamp);
@@ -0,0 +1,7 @@
+create sequence overdue_loan_generation_seq;
+
+alter table overdue_loan add column generation bigint not null default 0;
+
+drop index idx_overdue_loan_checked_at;
+
+create index idx_overdue_loan_generation on overdue_loan (generation);
@@ -0,0 +1,3 @@
+alter table loan add column open_book bigint as (case when returned then null else id_book end);
+
+alter table loan add constraint uk_loan_open_book unique (open_book);
@@ -0,0 +1,51 @@
+package com.brunopego.library.api.mapper;
+
+import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookMapperTest {
+
+    @Test
+    @DisplayName("Deve converter um livro em dto")
+    public void shouldMapBookToDto() {
+        // cenário
+        Book book = Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").build();
+
+        // execução
+        BookDTO dto = BookMapper.toDto(book);
+
+        // verificação
+        assertThat(dto.getId()).isEqualTo(1L);
+        assertThat(dto.getAuthor()).isEqualTo("Bruno");
+        assertThat(dto.getTitle()).isEqualTo("Um Livro");
+        assertThat(dto.getIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve converter um dto em livro")
+    public void shouldMapDtoToBook() {
+        // cenário
+        BookDTO dto = BookDTO.builder().author("Bruno").title("Um Livro").isbn("123").build();
+
+        // execução
+        Book book = BookMapper.toEntity(dto);
+
+        // verificação
+        assertThat(book.getId()).isNull();
+        assertThat(book.getAuthor()).isEqualTo("Bruno");
+        assertThat(book.getTitle()).isEqualTo("Um Livro");
+        assertThat(book.getIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve retornar nulo ao converter um livro nulo")
+    public void shouldMapNullToNull() {
+        assertThat(BookMapper.toDto(null)).isNull();
+        assertThat(BookMapper.toEntity(null)).isNull();
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.brunopego.library.api.mapper;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanMapperTest {
+
+    @Test
+    @DisplayName("Deve converter um empréstimo em dto com o livro aninhado")
+    public void shouldMapLoanToDto() {
+        // cenário
+        Book book = Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").build();
+        Loan loan = Loan.builder().id(2L).customer("Bruno Lacerda").book(book).loanDate(LocalDate.now()).build();
+
+        // execução
+        LoanDTO dto = LoanMapper.toDto(loan);
+
+        // verificação
+        assertThat(dto.getId()).isEqualTo(2L);
+        assertThat(dto.getCustomer()).isEqualTo("Bruno Lacerda");
+        assertThat(dto.getIsbn()).isEqualTo("123");
+        assertThat(dto.getBook().getId()).isEqualTo(1L);
+        assertThat(dto.getBook().getTitle()).isEqualTo("Um Livro");
+    }
+
+    @Test
+    @DisplayName("Deve converter um empréstimo sem livro")
+    public void shouldMapLoanWithoutBook() {
+        // cenário
+        Loan loan = Loan.builder().id(2L).customer("Bruno Lacerda").build();
+
+        // execução
+        LoanDTO dto = LoanMapper.toDto(loan);
+
+        // verificação
+        assertThat(dto.getIsbn()).isNull();
+        assertThat(dto.getBook()).isNull();
+    }
+
+}
@@ -1,10 +1,17 @@
 package com.brunopego.library.api.resource;
 
+import com.brunopego.library.api.dto.BookAvailabilityDTO;
+import com.brunopego.library.api.dto.BookBatchResultDTO;
 import com.brunopego.library.api.dto.BookDTO;
+import com.brunopego.library.config.WireFormatConfiguration;
 import com.brunopego.library.exception.BusinessException;
 import com.brunopego.library.model.entity.Book;
 import com.brunopego.library.service.BookService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,20 +23,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -150,6 +163,50 @@ public class BookControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Deve retornar a versão do livro como ETag")
+    public void shouldReturnBookVersionAsETag() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        book.setVersion(3L);
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar not modified quando o ETag informado for a versão atual do livro")
+    public void shouldReturnNotModifiedWhenBookVersionMatches() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        book.setVersion(3L);
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1"))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+            .andExpect(content().string(""));
+
+    }
+
     @Test
     @DisplayName("Deve retornar resource not found quando o livro procurado não existir")
     public void shouldReturnNotFoundWhenBookDoesNotExist() throws Exception {
@@ -254,6 +311,115 @@ public class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Deve retornar precondition failed ao atualizar um livro com ETag desatualizado")
+    public void shouldNotUpdateBookWithStaleETag() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        book.setVersion(4L);
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+
+        String json = new ObjectMapper().writeValueAsString(createNewBookDto());
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/1"))
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(service, Mockito.never()).update(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar um livro com ETag atual retornando o novo ETag")
+    public void shouldUpdateBookWithCurrentETag() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        book.setVersion(3L);
+        Book updatedBook = Book.builder().id(1L).author("Bruno").title("Um Livro a Mais").isbn("123").version(4L).build();
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(service.update(book)).willReturn(updatedBook);
+
+        String json = new ObjectMapper().writeValueAsString(createNewBookDto());
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/1"))
+                .header(HttpHeaders.IF_MATCH, "\"2\", \"3\"")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("Deve retornar conflict quando o livro for alterado concorrentemente")
+    public void shouldReturnConflictOnConcurrentUpdate() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        book.setVersion(3L);
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(service.update(book)).willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        String json = new ObjectMapper().writeValueAsString(createNewBookDto());
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/1"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Não deve alterar o livro obtido do serviço quando a atualização falhar")
+    public void shouldNotMutateFetchedBookWhenUpdateFails() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        book.setVersion(3L);
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(service.update(Mockito.any(Book.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        String json = "{\"title\":\"Outro Título\",\"author\":\"Outro Autor\"}";
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/1"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isConflict());
+
+        // verificação
+        assertThat(book.getTitle()).isEqualTo("Um Livro");
+        assertThat(book.getAuthor()).isEqualTo("Bruno");
+        Mockito.verify(service).update(Mockito.argThat(changes ->
+                changes != book && changes.getTitle().equals("Outro Título") && changes.getVersion() == 3L));
+    }
+
     @Test
     @DisplayName("Deve filtrar livros")
     public void shouldFilterBooks() throws Exception {
@@ -284,4 +450,313 @@ public class BookControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Deve cadastrar livros em lote informando o resultado de cada item")
+    public void shouldCreateBooksInBatch() throws Exception {
+        // cenário
+        BookDTO valid = createNewBookDto();
+        BookDTO invalid = BookDTO.builder().title("Sem autor").isbn("002").build();
+
+        BDDMockito.given(service.saveAll(Mockito.anyList()))
+                .willReturn(Arrays.asList(BookBatchResultDTO.builder()
+                        .id(1L)
+                        .isbn(valid.getIsbn())
+                        .status(BookBatchResultDTO.Status.CREATED)
+                        .build()));
+
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(valid, invalid));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("[0].id").value(1))
+            .andExpect(jsonPath("[0].status").value("CREATED"))
+            .andExpect(jsonPath("[1].isbn").value("002"))
+            .andExpect(jsonPath("[1].status").value("REJECTED"))
+            .andExpect(jsonPath("[1].errors", hasSize(1)));
+
+        Mockito.verify(service).saveAll(Mockito.argThat(books -> books.size() == 1));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao importar livros demais em lote")
+    public void shouldNotCreateTooManyBooksInBatch() throws Exception {
+        // cenário
+        String json = new ObjectMapper().writeValueAsString(Collections.nCopies(5001, createNewBookDto()));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0]").value("At most 5000 books per request"));
+
+        Mockito.verify(service, Mockito.never()).saveAll(Mockito.anyList());
+
+    }
+
+    @Test
+    @DisplayName("Deve exportar o catálogo de livros em ndjson")
+    public void shouldExportBooksAsNdjson() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book);
+            return null;
+        }).given(service).exportAll(Mockito.any());
+
+        // execução
+        MvcResult result = mvc
+                .perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc
+            .perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/x-ndjson"))
+            .andExpect(content().string("{\"id\":1,\"title\":\"Um Livro\",\"author\":\"Bruno\",\"isbn\":\"123\"}\n"));
+
+    }
+
+    @Test
+    @DisplayName("Deve exportar o catálogo de livros em csv")
+    public void shouldExportBooksAsCsv() throws Exception {
+        // cenário
+        Book book = Book.builder().id(1L).author("Bruno, o autor").title("Um \"Livro\"").isbn("123").build();
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book);
+            return null;
+        }).given(service).exportAll(Mockito.any());
+
+        // execução
+        MvcResult result = mvc
+                .perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=csv")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc
+            .perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "text/csv"))
+            .andExpect(content().string("id,title,author,isbn\r\n1,\"Um \"\"Livro\"\"\",\"Bruno, o autor\",123\r\n"));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao exportar em formato não suportado")
+    public void shouldNotExportUnsupportedFormat() throws Exception {
+        mvc
+            .perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=xml")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0]").value("Unsupported export format: xml"));
+
+        Mockito.verify(service, Mockito.never()).exportAll(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar livros a partir de um cursor")
+    public void shouldFilterBooksAfterCursor() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(42L);
+
+        BDDMockito.given(service.findAfter(Mockito.any(Book.class), Mockito.eq(0L), Mockito.eq(1)))
+                .willReturn(new SliceImpl<Book>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?author=Bruno&after=&size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("content", hasSize(1)))
+            .andExpect(jsonPath("content[0].id").value(42))
+            .andExpect(jsonPath("size").value(1))
+            .andExpect(jsonPath("next").value("NDI"));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao filtrar livros com cursor inválido")
+    public void shouldNotFilterBooksWithInvalidCursor() throws Exception {
+        mvc
+            .perform(MockMvcRequestBuilders.get(BOOK_API.concat("?after=@@@")).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0]").value("Invalid cursor"));
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros por texto")
+    public void shouldSearchBooks() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+
+        BDDMockito.given(service.search(Mockito.eq("livro"), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 10), 1));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/search?q=livro&page=0&size=10"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("content", hasSize(1)))
+            .andExpect(jsonPath("content[0].title").value(book.getTitle()))
+            .andExpect(jsonPath("totalElements").value(1));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao buscar livros sem texto")
+    public void shouldNotSearchBooksWithoutText() throws Exception {
+        mvc
+            .perform(MockMvcRequestBuilders.get(BOOK_API.concat("/search?q=")).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0]").value("Search text is required"));
+    }
+
+    @Test
+    @DisplayName("Deve consultar a disponibilidade de vários livros por isbn")
+    public void shouldGetAvailabilityByIsbns() throws Exception {
+        // cenário
+        BDDMockito.given(service.getAvailability(Arrays.asList("001", "002")))
+                .willReturn(Arrays.asList(
+                        BookAvailabilityDTO.builder().isbn("001").id(1L).status(BookAvailabilityDTO.Status.LOANED).build(),
+                        BookAvailabilityDTO.builder().isbn("002").status(BookAvailabilityDTO.Status.NOT_FOUND).build()));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/availability"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("[\"001\", \"002\"]");
+
+        mvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("[0].id").value(1))
+            .andExpect(jsonPath("[0].status").value("LOANED"))
+            .andExpect(jsonPath("[1].isbn").value("002"))
+            .andExpect(jsonPath("[1].status").value("NOT_FOUND"));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao consultar a disponibilidade de isbns demais")
+    public void shouldNotGetAvailabilityOfTooManyIsbns() throws Exception {
+        // cenário
+        String json = new ObjectMapper().writeValueAsString(Collections.nCopies(5001, "001"));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/availability"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+            .perform(request)
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("errors[0]").value("At most 5000 isbns per request"));
+
+        Mockito.verify(service, Mockito.never()).getAvailability(Mockito.anyList());
+
+    }
+
+    @Test
+    @DisplayName("Deve filtrar livros retornando a página em CBOR")
+    public void shouldFilterBooksAsCbor() throws Exception {
+        // cenário
+        Book book = createNewBook();
+        book.setId(1L);
+
+        BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?title=Um&page=0&size=100"))
+                .accept(MediaType.APPLICATION_CBOR);
+
+        MvcResult result = mvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)))
+            .andReturn();
+
+        // verificação
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.get("content").get(0).get("isbn").asText()).isEqualTo("123");
+        assertThat(page.get("pageable").get("pageSize").asInt()).isEqualTo(100);
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar os erros de validação em Smile para um livro enviado em Smile")
+    public void shouldNotCreateInvalidBookSentAsSmile() throws Exception {
+        // cenário
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        MediaType smileType = MediaType.valueOf(WireFormatConfiguration.APPLICATION_SMILE_VALUE);
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API)
+                .contentType(smileType)
+                .accept(smileType)
+                .content(smile.writeValueAsBytes(new BookDTO()));
+
+        MvcResult result = mvc
+            .perform(request)
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(smileType))
+            .andReturn();
+
+        // verificação
+        JsonNode errors = smile.readTree(result.getResponse().getContentAsByteArray());
+        assertThat(errors.get("errors")).hasSize(3);
+
+    }
+
+    @Test
+    @DisplayName("Deve responder em JSON quando o cliente não informar o formato")
+    public void shouldRespondWithJsonByDefault() throws Exception {
+        // cenário
+        BDDMockito.given(service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Collections.emptyList(), PageRequest.of(0, 10), 0));
+
+        // execução
+        mvc
+            .perform(MockMvcRequestBuilders.get(BOOK_API))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("totalElements").value(0));
+
+    }
+
 }
@@ -2,13 +2,21 @@ package com.brunopego.library.api.resource;
 
 import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanReturnResultDTO;
+import com.brunopego.library.api.dto.OverdueLoanDTO;
 import com.brunopego.library.api.dto.ReturnedLoanDTO;
+import com.brunopego.library.api.mapper.LoanMapper;
+import com.brunopego.library.config.WireFormatConfiguration;
 import com.brunopego.library.exception.BusinessException;
 import com.brunopego.library.model.entity.Book;
 import com.brunopego.library.model.entity.Loan;
 import com.brunopego.library.service.BookService;
 import com.brunopego.library.service.LoanService;
+import com.brunopego.library.service.LoanViewService;
+import com.brunopego.library.service.OverdueLoanService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,18 +29,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -54,6 +68,12 @@ public class LoanControllerTest {
     @MockBean
     private LoanService loanService;
 
+    @MockBean
+    private OverdueLoanService overdueLoanService;
+
+    @MockBean
+    private LoanViewService loanViewService;
+
     private Book createNewBook() {
         return Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").build();
     }
@@ -153,8 +173,9 @@ public class LoanControllerTest {
         Loan loan = createNewLoan();
         BDDMockito.given(loanService.getById(Mockito.anyLong())).willReturn(Optional.of(loan));
 
-        loan.setReturned(true);
-        BDDMockito.given(loanService.update(Mockito.any(Loan.class))).willReturn(loan);
+        Loan returnedLoan = createNewLoan();
+        returnedLoan.setReturned(true);
+        BDDMockito.given(loanService.update(Mockito.any(Loan.class))).willReturn(returnedLoan);
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -171,6 +192,54 @@ public class LoanControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Não deve atualizar o empréstimo quando a devolução não mudar seu estado")
+    public void shouldNotUpdateLoanWhenReturnedIsUnchanged() throws Exception {
+        // cenário
+        String json = new ObjectMapper().writeValueAsString(ReturnedLoanDTO.builder().returned(false).build());
+        Loan loan = createNewLoan();
+        BDDMockito.given(loanService.getById(Mockito.anyLong())).willReturn(Optional.of(loan));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(LOAN_API.concat("/1"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk());
+
+        Mockito.verify(loanService, Mockito.never()).update(Mockito.any(Loan.class));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar precondition failed ao devolver um livro com ETag desatualizado")
+    public void shouldNotReturnBookWithStaleETag() throws Exception {
+        // cenário
+        String json = new ObjectMapper().writeValueAsString(ReturnedLoanDTO.builder().returned(true).build());
+        Loan loan = createNewLoan();
+        loan.setVersion(2L);
+        BDDMockito.given(loanService.getById(1L)).willReturn(Optional.of(loan));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(LOAN_API.concat("/1"))
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(loanService, Mockito.never()).update(Mockito.any(Loan.class));
+
+    }
+
     @Test
     @DisplayName("Deve retornar erro 404 ao tentar devolver um livro inexistente")
     public void ShouldNotReturnInexistentLoanedBook() throws Exception {
@@ -202,8 +271,8 @@ public class LoanControllerTest {
         Long id = 1L;
         Loan loan = createNewLoan();
 
-        BDDMockito.given(loanService.find(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), 1));
+        BDDMockito.given(loanService.findDto(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(LoanMapper.toDto(loan)), PageRequest.of(0, 10), 1));
 
         String queryString = String.format("?isbn=%s&customer=%s&page=0&size=10",
                 loan.getBook().getIsbn(),
@@ -224,4 +293,206 @@ public class LoanControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Deve retornar not modified ao filtrar empréstimos sem alterações")
+    public void shouldReturnNotModifiedWhenLoansDidNotChange() throws Exception {
+        // cenário
+        Loan loan = createNewLoan();
+        BDDMockito.given(loanService.findDto(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(LoanMapper.toDto(loan)), PageRequest.of(0, 10), 1));
+        String etag = mvc
+                .perform(MockMvcRequestBuilders.get(LOAN_API.concat("?customer=Bruno")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Bruno"))
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+    }
+
+    @Test
+    @DisplayName("Deve alterar a etag dos empréstimos quando o livro de um empréstimo for alterado")
+    public void shouldChangeETagWhenLoanedBookChanges() throws Exception {
+        // cenário
+        Loan loan = createNewLoan();
+        BDDMockito.given(loanService.findDto(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(LoanMapper.toDto(loan)), PageRequest.of(0, 10), 1));
+        String etag = mvc
+                .perform(MockMvcRequestBuilders.get(LOAN_API.concat("?customer=Bruno")).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        loan.getBook().setTitle("Outro título");
+        BDDMockito.given(loanService.findDto(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(LoanMapper.toDto(loan)), PageRequest.of(0, 10), 1));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Bruno"))
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificação
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].book.title").value("Outro título"));
+
+    }
+
+    @Test
+    @DisplayName("Deve exportar o histórico de empréstimos em csv")
+    public void shouldExportLoansAsCsv() throws Exception {
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setLoanDate(LocalDate.of(2020, 7, 1));
+        loan.setReturned(true);
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Loan> consumer = invocation.getArgument(0);
+            consumer.accept(loan);
+            return null;
+        }).given(loanService).exportAll(Mockito.any());
+
+        // execução
+        MvcResult result = mvc
+                .perform(MockMvcRequestBuilders.get(LOAN_API.concat("/export?format=csv")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,customer,loanDate,returned,bookId,isbn\r\n"
+                        + "1,Bruno Lacerda,2020-07-01,true,1,123\r\n"));
+
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos a partir de um cursor")
+    public void shouldFilterLoansAfterCursor() throws Exception {
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setId(43L);
+
+        BDDMockito.given(loanService.findAfter(Mockito.any(LoanFilterDTO.class), Mockito.eq(42L), Mockito.eq(10)))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), false));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Bruno%20Lacerda&after=NDI&size=10"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(43))
+                .andExpect(jsonPath("next").doesNotExist());
+
+    }
+
+    @Test
+    @DisplayName("Deve listar os empréstimos atrasados")
+    public void shouldFindOverdueLoans() throws Exception {
+        // cenário
+        OverdueLoanDTO overdue = OverdueLoanDTO.builder().id(1L).customer("Bruno Lacerda").isbn("123").title("Um Livro")
+                .loanDate(LocalDate.of(2020, 7, 1)).dueDate(LocalDate.of(2020, 7, 15)).build();
+        BDDMockito.given(overdueLoanService.find(Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<OverdueLoanDTO>(Arrays.asList(overdue), PageRequest.of(0, 10), 1));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("/overdue?page=0&size=10"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(1))
+                .andExpect(jsonPath("content[0].dueDate").value("2020-07-15"))
+                .andExpect(jsonPath("totalElements").value(1));
+
+    }
+
+    @Test
+    @DisplayName("Deve devolver livros em lote")
+    public void shouldReturnBooksInBatch() throws Exception {
+        // cenário
+        BDDMockito.given(loanService.returnAll(Arrays.asList(1L, 2L))).willReturn(Arrays.asList(
+                LoanReturnResultDTO.builder().id(1L).status(LoanReturnResultDTO.Status.RETURNED).build(),
+                LoanReturnResultDTO.builder().id(2L).status(LoanReturnResultDTO.Status.NOT_FOUND).build()));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(LOAN_API.concat("/return"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]");
+
+        mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("[0].status").value("RETURNED"))
+                .andExpect(jsonPath("[1].id").value(2))
+                .andExpect(jsonPath("[1].status").value("NOT_FOUND"));
+
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao devolver empréstimos demais em lote")
+    public void shouldNotReturnTooManyBooksInBatch() throws Exception {
+        // cenário
+        String json = new ObjectMapper().writeValueAsString(Collections.nCopies(1001, 1L));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(LOAN_API.concat("/return"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc
+                .perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("At most 1000 loan ids per request"));
+
+        Mockito.verify(loanService, Mockito.never()).returnAll(Mockito.anyList());
+
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos retornando a página em Smile")
+    public void shouldFilterLoansAsSmile() throws Exception {
+        // cenário
+        Loan loan = createNewLoan();
+        MediaType smileType = MediaType.valueOf(WireFormatConfiguration.APPLICATION_SMILE_VALUE);
+
+        BDDMockito.given(loanService.findDto(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(LoanMapper.toDto(loan)), PageRequest.of(0, 10), 1));
+
+        // execução
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Fulano"))
+                .accept(smileType);
+
+        MvcResult result = mvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smileType))
+                .andReturn();
+
+        // verificação
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.get("content").get(0).get("customer").asText()).isEqualTo(loan.getCustomer());
+
+    }
 }
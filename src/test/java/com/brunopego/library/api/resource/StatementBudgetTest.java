@@ -0,0 +1,189 @@
+package com.brunopego.library.api.resource;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanViewRepository;
+import com.brunopego.library.service.impl.ActiveLoanIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static com.brunopego.library.config.StatementCount.repeats;
+import static com.brunopego.library.config.StatementCount.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith({SpringExtension.class, OutputCaptureExtension.class})
+@ActiveProfiles("test")
+@SpringBootTest(properties = "library.sql.statement-budget=1")
+@AutoConfigureMockMvc
+public class StatementBudgetTest {
+
+    static final String BOOK_API = "/api/books";
+    static final String LOAN_API = "/api/loans";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanViewRepository loanViewRepository;
+
+    @Autowired
+    ActiveLoanIndex activeLoans;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Book book;
+    private Loan loan;
+
+    @AfterEach
+    public void tearDown() {
+        if (loan != null) {
+            loanRepository.deleteById(loan.getId());
+            loanViewRepository.findById(loan.getId()).ifPresent(loanViewRepository::delete);
+            activeLoans.release(book.getId());
+        }
+        bookRepository.deleteById(book.getId());
+    }
+
+    private Book saveBook(String isbn) {
+        book = bookRepository.save(Book.builder().title("Orçamento").author("Bruno").isbn(isbn).build());
+        entityManagerFactory.getCache().evictAll();
+        return book;
+    }
+
+    private Loan saveLoan(String isbn) {
+        loan = loanRepository.save(Loan.builder().book(saveBook(isbn)).customer("Fulano").loanDate(LocalDate.now()).build());
+        activeLoans.reserve(book.getId());
+        return loan;
+    }
+
+    @Test
+    @DisplayName("Deve executar uma consulta ao obter um livro e nenhuma quando estiver em cache")
+    public void shouldCountStatementsOfGetBook() throws Exception {
+        // cenário
+        saveBook("budget-1");
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "/" + book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statements(0));
+    }
+
+    @Test
+    @DisplayName("Deve contar as consultas ao atualizar um livro")
+    public void shouldCountStatementsOfUpdateBook() throws Exception {
+        // cenário
+        saveBook("budget-2");
+        String json = "{\"title\":\"Orçamento revisto\",\"author\":\"Bruno\"}";
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API + "/" + book.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(statements(3));
+    }
+
+    @Test
+    @DisplayName("Deve contar as consultas ao devolver um livro")
+    public void shouldCountStatementsOfReturnBook() throws Exception {
+        // cenário
+        saveLoan("budget-3");
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.patch(LOAN_API + "/" + loan.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"returned\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(3));
+    }
+
+    @Test
+    @DisplayName("Deve devolver empréstimos em lote com uma consulta, uma atualização e a atualização da visão")
+    public void shouldCountStatementsOfBatchReturn() throws Exception {
+        // cenário
+        saveLoan("budget-6");
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.patch(LOAN_API + "/return")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + loan.getId() + ", -1]"))
+                .andExpect(status().isOk())
+                .andExpect(statements(3));
+    }
+
+    @Test
+    @DisplayName("Deve consultar a disponibilidade de livros com uma consulta de livros e uma de empréstimos")
+    public void shouldCountStatementsOfAvailability() throws Exception {
+        // cenário
+        saveLoan("budget-7");
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.post(BOOK_API + "/availability")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"budget-7\", \"budget-8\", \"budget-9\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("[0].status").value("LOANED"))
+                .andExpect(jsonPath("[1].status").value("NOT_FOUND"))
+                .andExpect(statements(2));
+    }
+
+    @Test
+    @DisplayName("Deve contar as consultas ao filtrar empréstimos")
+    public void shouldCountStatementsOfFindLoans() throws Exception {
+        // cenário
+        saveLoan("budget-4");
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(LOAN_API + "?isbn=budget-4&customer=Fulano"))
+                .andExpect(status().isOk())
+                .andExpect(statements(1))
+                .andExpect(repeats(1));
+    }
+
+    @Test
+    @DisplayName("Deve registrar as requisições que excedem o orçamento de consultas")
+    public void shouldLogRequestsOverBudget(CapturedOutput output) throws Exception {
+        // cenário
+        saveLoan("budget-5");
+
+        // execução
+        mvc.perform(MockMvcRequestBuilders.patch(LOAN_API + "/" + loan.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"returned\":true}"))
+                .andExpect(status().isOk());
+
+        // verificação
+        assertThat(output.getOut()).contains("PATCH " + LOAN_API + "/" + loan.getId() + " executed")
+                .contains("budget is 1");
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.brunopego.library.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "library.export.timeout=2h")
+@AutoConfigureMockMvc
+public class ExportConfigurationTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    @DisplayName("Deve aplicar o timeout de exportação apenas às respostas em streaming")
+    public void shouldApplyExportTimeoutToStreamingResponses() throws Exception {
+        // execução
+        MvcResult books = mvc.perform(MockMvcRequestBuilders.get("/api/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult loans = mvc.perform(MockMvcRequestBuilders.get("/api/loans/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // verificação
+        assertThat(books.getRequest().getAsyncContext().getTimeout()).isEqualTo(7_200_000L);
+        assertThat(loans.getRequest().getAsyncContext().getTimeout()).isEqualTo(7_200_000L);
+        assertThat(ReflectionTestUtils.getField(handlerAdapter, "asyncRequestTimeout")).isNull();
+    }
+
+}
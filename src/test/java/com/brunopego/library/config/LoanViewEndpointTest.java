@@ -0,0 +1,52 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.api.dto.LoanViewCheckDTO;
+import com.brunopego.library.service.LoanViewService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LoanViewEndpointTest {
+
+    @Test
+    @DisplayName("Deve recusar a reconstrução do modelo de leitura quando ela não estiver habilitada")
+    public void shouldRefuseRebuildWhenDisabled() {
+        // cenário
+        LoanViewService service = Mockito.mock(LoanViewService.class);
+        LoanViewEndpoint endpoint = new LoanViewEndpoint(service, false);
+
+        // execução
+        WebEndpointResponse<LoanViewCheckDTO> response = endpoint.rebuild();
+
+        // verificação
+        assertThat(response.getStatus()).isEqualTo(403);
+        Mockito.verify(service, Mockito.never()).rebuild();
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o modelo de leitura quando ela estiver habilitada")
+    public void shouldRebuildWhenEnabled() {
+        // cenário
+        LoanViewService service = Mockito.mock(LoanViewService.class);
+        LoanViewCheckDTO check = LoanViewCheckDTO.builder().loans(1).build();
+        Mockito.when(service.check()).thenReturn(check);
+        LoanViewEndpoint endpoint = new LoanViewEndpoint(service, true);
+
+        // execução
+        WebEndpointResponse<LoanViewCheckDTO> response = endpoint.rebuild();
+
+        // verificação
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getBody()).isSameAs(check);
+        Mockito.verify(service).rebuild();
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanViewRepository;
+import com.brunopego.library.service.BookService;
+import com.brunopego.library.service.impl.ActiveLoanIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MetricsConfigurationTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanViewRepository loanViewRepository;
+
+    @Autowired
+    ActiveLoanIndex activeLoans;
+
+    private final List<Book> savedBooks = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        savedBooks.forEach(book -> bookRepository.deleteById(book.getId()));
+        savedBooks.clear();
+    }
+
+    private Book save(String isbn) {
+        Book book = bookService.save(Book.builder().title("Métricas").author("Bruno").isbn(isbn).build());
+        savedBooks.add(book);
+        return book;
+    }
+
+    private long count(String name, String type, String method) {
+        Timer timer = registry.find(name).tag("class", type).tag("method", method).tag("exception", "none").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    @DisplayName("Deve medir a latência dos serviços, inclusive acertos de cache, e dos repositórios")
+    public void shouldTimeServicesAndRepositories() {
+        // cenário
+        Book book = save("metrics-1");
+        long services = count(MetricsAspect.SERVICE_TIMER, "BookService", "getById");
+        long repositories = count(MetricsAspect.REPOSITORY_TIMER, "BookRepository", "findById");
+
+        // execução
+        bookService.getById(book.getId());
+        bookRepository.findById(book.getId());
+
+        // verificação
+        assertThat(count(MetricsAspect.SERVICE_TIMER, "BookService", "getById")).isEqualTo(services + 1);
+        assertThat(count(MetricsAspect.REPOSITORY_TIMER, "BookRepository", "findById")).isEqualTo(repositories + 1);
+    }
+
+    @Test
+    @DisplayName("Deve identificar o repositório pela interface da aplicação que declara o método")
+    public void shouldTagRepositoriesByApplicationInterface() {
+        // cenário
+        long custom = count(MetricsAspect.REPOSITORY_TIMER, "LoanViewRepository", "refreshBook");
+        long inherited = count(MetricsAspect.REPOSITORY_TIMER, "LoanViewRepository", "count");
+
+        // execução
+        loanViewRepository.refreshBook(-1L);
+        loanViewRepository.count();
+
+        // verificação
+        assertThat(count(MetricsAspect.REPOSITORY_TIMER, "LoanViewRepository", "refreshBook")).isEqualTo(custom + 1);
+        assertThat(count(MetricsAspect.REPOSITORY_TIMER, "LoanViewRepository", "count")).isEqualTo(inherited + 1);
+    }
+
+    @Test
+    @DisplayName("Deve contar os erros de negócio pelo código do erro, sem a mensagem")
+    public void shouldCountBusinessErrorsByCode() {
+        // cenário
+        save("metrics-2");
+
+        // execução
+        assertThatThrownBy(() -> bookService.save(Book.builder().title("Outro").author("Bruno").isbn("metrics-2").build()))
+                .isInstanceOf(BusinessException.class);
+
+        // verificação
+        assertThat(registry.get(MetricsAspect.BUSINESS_ERRORS)
+                .tag("class", "BookService").tag("method", "save").tag("code", "ISBN_ALREADY_REGISTERED")
+                .counter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.find(MetricsAspect.BUSINESS_ERRORS).counters())
+                .allSatisfy(counter -> {
+                    assertThat(counter.getId().getTag("message")).isNull();
+                    assertThat(counter.getId().getTag("exception")).isNull();
+                });
+        assertThat(registry.get(MetricsAspect.SERVICE_TIMER)
+                .tag("class", "BookService").tag("method", "save").tag("exception", "BusinessException")
+                .timer().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve expor os empréstimos ativos como gauge")
+    public void shouldGaugeActiveLoans() {
+        // execução
+        activeLoans.reserve(-1L);
+        double reserved = registry.get(MetricsConfiguration.ACTIVE_LOANS).gauge().value();
+        activeLoans.release(-1L);
+
+        // verificação
+        assertThat(reserved).isEqualTo(activeLoans.size() + 1);
+    }
+
+    @Test
+    @DisplayName("Deve publicar histogramas no endpoint do Prometheus")
+    public void shouldExposePrometheusHistograms() throws Exception {
+        // cenário
+        bookService.getBookByIsbn("metrics-missing");
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("library_service_seconds_bucket{class=\"BookService\"")))
+                .andExpect(content().string(containsString("library_loans_active")));
+    }
+
+}
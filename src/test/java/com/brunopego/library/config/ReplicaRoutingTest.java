@@ -0,0 +1,194 @@
+package com.brunopego.library.config;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.service.BookService;
+import com.brunopego.library.service.impl.BookServiceImpl;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.Cookie;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "library.datasource.routing.enabled=true",
+        "library.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "library.datasource.replicas[0].username=sa",
+        "library.datasource.max-lag=5s",
+        "library.datasource.replica-check-millis=3600000"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    static final String BOOK_API = "/api/books";
+    static final String REPLICA_ISBN = "replica-only";
+
+    static JdbcTemplate replica;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    BookService service;
+
+    @Autowired
+    BookRepository repository;
+
+    @Autowired
+    ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    ReplicaMonitor monitor;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> savedBooks = new ArrayList<>();
+
+    @BeforeAll
+    public static void setUpReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        replica = new JdbcTemplate(dataSource);
+        replica.update("merge into book (id, title, author, isbn, version) key (id) values (900001, 'Réplica', 'Bruno', ?, 0)",
+                REPLICA_ISBN);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        replicate(0);
+        monitor.check();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        savedBooks.forEach(repository::deleteById);
+        savedBooks.clear();
+    }
+
+    private void replicate(long lagMillis) {
+        replica.update("update replica_heartbeat set beat = ? where id = 1",
+                new Timestamp(System.currentTimeMillis() - lagMillis));
+    }
+
+    private long countReplicaBooks() {
+        Book filter = Book.builder().isbn(REPLICA_ISBN).build();
+        return service.find(filter, PageRequest.of(0, 10)).getTotalElements();
+    }
+
+    @Test
+    @DisplayName("Deve enviar as leituras somente leitura à réplica e as escritas ao primário")
+    public void shouldRouteReadsToReplicaAndWritesToPrimary() {
+        // execução
+        Book saved = service.save(Book.builder().title("Primário").author("Bruno").isbn("primary-only").build());
+        savedBooks.add(saved.getId());
+
+        // verificação
+        assertThat(countReplicaBooks()).isEqualTo(1);
+        assertThat(service.find(Book.builder().isbn("primary-only").build(), PageRequest.of(0, 10)).getTotalElements())
+                .isZero();
+        assertThat(new JdbcTemplate(routingDataSource.getPrimary())
+                .queryForObject("select count(*) from book where isbn = 'primary-only'", Long.class)).isEqualTo(1);
+        assertThat(routingDataSource.getStatuses().get("replica-0").isHealthy()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve voltar ao primário quando a réplica estiver atrasada")
+    public void shouldUsePrimaryWhenReplicaLags() {
+        // cenário
+        replicate(60_000);
+
+        // execução
+        monitor.check();
+
+        // verificação
+        assertThat(routingDataSource.getStatuses().get("replica-0").isHealthy()).isFalse();
+        assertThat(routingDataSource.getStatuses().get("replica-0").getLagMillis()).isGreaterThanOrEqualTo(60_000);
+        assertThat(countReplicaBooks()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário depois de uma escrita do mesmo cliente")
+    public void shouldReadYourWritesAfterClientWrite() throws Exception {
+        // cenário
+        MvcResult write = mvc.perform(MockMvcRequestBuilders.post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Escrita\",\"author\":\"Bruno\",\"isbn\":\"sticky-1\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReplicaStickinessFilter.COOKIE))
+                .andReturn();
+        savedBooks.add(repository.findByIsbn("sticky-1").get().getId());
+        Cookie sticky = write.getResponse().getCookie(ReplicaStickinessFilter.COOKIE);
+
+        // execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "?isbn=sticky-1").cookie(sticky))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("totalElements").value(1));
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API + "?isbn=sticky-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("totalElements").value(0));
+    }
+
+    @Test
+    @DisplayName("Deve carregar do primário os livros que vão para o cache")
+    public void shouldFillBookCachesFromPrimary() {
+        // cenário
+        Book saved = service.save(Book.builder().title("Primário").author("Bruno").isbn("cached-primary").build());
+        savedBooks.add(saved.getId());
+        cacheManager.getCache(BookServiceImpl.BOOKS_CACHE).clear();
+        cacheManager.getCache(BookServiceImpl.BOOKS_BY_ISBN_CACHE).clear();
+        entityManagerFactory.getCache().evictAll();
+
+        // execução
+        Optional<Book> byId = service.getById(saved.getId());
+        Optional<Book> replicaOnly = service.getBookByIsbn(REPLICA_ISBN);
+
+        // verificação
+        assertThat(byId).isPresent();
+        assertThat(replicaOnly).isEmpty();
+        assertThat(cacheManager.getCache(BookServiceImpl.BOOKS_CACHE).get(saved.getId())).isNotNull();
+        assertThat(cacheManager.getCache(BookServiceImpl.BOOKS_BY_ISBN_CACHE).get(REPLICA_ISBN)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve expor o estado das réplicas no health")
+    public void shouldExposeReplicaHealth() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/actuator/health/replicas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("details.replica-0.healthy").value(true));
+    }
+
+}
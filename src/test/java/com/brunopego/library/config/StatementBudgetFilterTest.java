@@ -0,0 +1,67 @@
+package com.brunopego.library.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class StatementBudgetFilterTest {
+
+    private static final String SELECT_BOOK = "select b.id, b.title from book b where b.id=?";
+    private static final String SELECT_LOANS = "select l.id, l.id_book from loan l";
+
+    @Test
+    @DisplayName("Deve registrar a mesma consulta repetida na requisição como provável N+1")
+    public void shouldLogRepeatedStatements(CapturedOutput output) throws ServletException, IOException {
+        // cenário
+        StatementCounter counter = new StatementCounter();
+        StatementBudgetFilter filter = new StatementBudgetFilter(100, 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loans");
+        FilterChain chain = (req, res) -> {
+            counter.inspect(SELECT_LOANS);
+            for (int i = 0; i < 3; i++) {
+                counter.inspect(SELECT_BOOK);
+            }
+        };
+
+        // execução
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // verificação
+        assertThat(request.getAttribute(StatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE)).isEqualTo(4L);
+        assertThat(request.getAttribute(StatementBudgetFilter.STATEMENT_REPEATS_ATTRIBUTE)).isEqualTo(3);
+        assertThat(output.getOut()).contains("GET /api/loans executed the same SQL statement 3 times, likely N+1: " + SELECT_BOOK)
+                .doesNotContain(SELECT_LOANS)
+                .doesNotContain("budget is");
+    }
+
+    @Test
+    @DisplayName("Deve contar apenas as consultas da própria requisição")
+    public void shouldTrackOnlyStatementsOfTheRequest() throws ServletException, IOException {
+        // cenário
+        StatementCounter counter = new StatementCounter();
+        StatementBudgetFilter filter = new StatementBudgetFilter(100, 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+        counter.inspect(SELECT_BOOK);
+        counter.inspect(SELECT_BOOK);
+
+        // execução
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> counter.inspect(SELECT_BOOK));
+        counter.inspect(SELECT_BOOK);
+
+        // verificação
+        assertThat(request.getAttribute(StatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE)).isEqualTo(1L);
+        assertThat(request.getAttribute(StatementBudgetFilter.STATEMENT_REPEATS_ATTRIBUTE)).isEqualTo(1);
+    }
+
+}
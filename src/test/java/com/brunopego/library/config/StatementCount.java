@@ -0,0 +1,24 @@
+package com.brunopego.library.config;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class StatementCount {
+
+    private StatementCount() {
+    }
+
+    public static ResultMatcher statements(long expected) {
+        return result -> assertThat(result.getRequest().getAttribute(StatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE))
+                .as("SQL statements executed by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+    public static ResultMatcher repeats(int expected) {
+        return result -> assertThat(result.getRequest().getAttribute(StatementBudgetFilter.STATEMENT_REPEATS_ATTRIBUTE))
+                .as("Most repeated SQL statement of %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+}
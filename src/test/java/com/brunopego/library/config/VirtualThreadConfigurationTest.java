@@ -0,0 +1,76 @@
+package com.brunopego.library.config;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "library.threads.virtual=true")
+public class VirtualThreadConfigurationTest {
+
+    @Autowired
+    ServletWebServerApplicationContext context;
+
+    @Autowired
+    ExecutorService virtualThreadExecutor;
+
+    @Autowired
+    AsyncTaskExecutor applicationTaskExecutor;
+
+    @BeforeAll
+    public static void requireVirtualThreads() {
+        assumeTrue(hasVirtualThreads(), "virtual threads require Java 21");
+    }
+
+    private static boolean hasVirtualThreads() {
+        try {
+            Thread.class.getMethod("isVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    @DisplayName("Deve atender as requisições do Tomcat em threads virtuais")
+    public void shouldServeRequestsOnVirtualThreads() throws Exception {
+        // execução
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        Object executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        Thread thread = virtualThreadExecutor.submit(Thread::currentThread).get();
+
+        // verificação
+        assertThat(executor).isSameAs(virtualThreadExecutor);
+        assertThat(isVirtual(thread)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve executar as requisições assíncronas do MVC em threads virtuais")
+    public void shouldRunAsyncRequestsOnVirtualThreads() throws Exception {
+        // execução
+        Thread thread = applicationTaskExecutor.submit(Thread::currentThread).get();
+
+        // verificação
+        assertThat(isVirtual(thread)).isTrue();
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.brunopego.library.journal;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanViewRepository;
+import com.brunopego.library.service.LoanService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "library.journal.enabled=true",
+        "library.journal.directory=target/loan-journal-test",
+        "library.journal.segment-size=1MB",
+        "library.journal.fsync=ALWAYS"
+})
+public class LoanJournalIntegrationTest {
+
+    @Autowired
+    LoanService service;
+
+    @Autowired
+    LoanJournal journal;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanViewRepository loanViewRepository;
+
+    @Value("${library.journal.directory}")
+    String directory;
+
+    private Loan loan;
+
+    @AfterEach
+    public void tearDown() {
+        loanRepository.deleteById(loan.getId());
+        loanViewRepository.deleteById(loan.getId());
+        bookRepository.deleteById(loan.getBook().getId());
+    }
+
+    private LoanJournalReplay replay() throws IOException {
+        return LoanJournalReplay.replay(Paths.get(directory));
+    }
+
+    private LoanJournalReplay awaitReturned(long expected) throws IOException, InterruptedException {
+        for (int attempt = 0; attempt < 100 && replay().count(LoanEvent.Type.RETURNED) < expected; attempt++) {
+            Thread.sleep(20);
+        }
+        return replay();
+    }
+
+    @Test
+    @DisplayName("Deve registrar no diário os empréstimos criados e devolvidos em lote")
+    public void shouldJournalCreatedAndReturnedLoans() throws IOException, InterruptedException {
+        // cenário
+        LoanJournalReplay before = replay();
+        Book book = bookRepository.save(Book.builder().title("Diário").author("Bruno").isbn("journal-1").build());
+        loan = service.save(Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).returned(false).build());
+
+        // execução
+        service.returnAll(Arrays.asList(loan.getId()));
+
+        // verificação
+        assertThat(journal).isInstanceOf(MappedLoanJournal.class);
+        LoanJournalReplay after = awaitReturned(before.count(LoanEvent.Type.RETURNED) + 1);
+        assertThat(after.count(LoanEvent.Type.CREATED)).isEqualTo(before.count(LoanEvent.Type.CREATED) + 1);
+        assertThat(after.count(LoanEvent.Type.RETURNED)).isEqualTo(before.count(LoanEvent.Type.RETURNED) + 1);
+        assertThat(after.getOpenLoans()).doesNotContainKey(loan.getId());
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.brunopego.library.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedLoanJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private List<LoanEvent> readAll() throws IOException {
+        List<LoanEvent> events = new ArrayList<>();
+        JournalReader.read(directory, events::add);
+        return events;
+    }
+
+    @Test
+    @DisplayName("Deve gravar os eventos fora da thread chamadora e lê-los na mesma ordem")
+    public void shouldAppendEventsAsynchronously() throws IOException {
+        // cenário
+        MappedLoanJournal journal = new MappedLoanJournal(new JournalWriter(directory, 4096), FsyncPolicy.ALWAYS,
+                Duration.ZERO, 16, Duration.ofSeconds(1));
+
+        // execução
+        for (long id = 1; id <= 100; id++) {
+            journal.append(new LoanEvent(LoanEvent.Type.CREATED, id, id * 10, id));
+        }
+        journal.close();
+
+        // verificação
+        List<LoanEvent> events = readAll();
+        assertThat(events).hasSize(100);
+        assertThat(events.get(0)).isEqualTo(new LoanEvent(LoanEvent.Type.CREATED, 1L, 10L, 1L));
+        assertThat(events.get(99)).isEqualTo(new LoanEvent(LoanEvent.Type.CREATED, 100L, 1000L, 100L));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o evento sem lançar exceção quando a fila estiver cheia")
+    public void shouldDropEventWhenQueueIsFull() throws IOException, InterruptedException {
+        // cenário
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JournalWriter writer = new JournalWriter(directory, 4096) {
+            @Override
+            public long append(LoanEvent event) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.append(event);
+            }
+        };
+        MappedLoanJournal journal = new MappedLoanJournal(writer, FsyncPolicy.NONE, Duration.ZERO, 1, Duration.ofMillis(10));
+
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 1L, 1L, 1L));
+        writing.await();
+
+        // execução
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 2L, 2L, 2L));
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 3L, 3L, 3L));
+        long dropped = journal.dropped();
+        boolean healthy = journal.isHealthy();
+        release.countDown();
+        journal.close();
+
+        // verificação
+        assertThat(dropped).isEqualTo(1);
+        assertThat(healthy).isFalse();
+        assertThat(readAll()).extracting(LoanEvent::getTimestamp).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Deve descartar o evento sem lançar exceção depois de fechado")
+    public void shouldDropEventAfterClose() throws IOException {
+        // cenário
+        MappedLoanJournal journal = new MappedLoanJournal(new JournalWriter(directory, 4096), FsyncPolicy.NONE,
+                Duration.ZERO, 16, Duration.ofMillis(10));
+        journal.close();
+
+        // execução
+        journal.append(new LoanEvent(LoanEvent.Type.CREATED, 1L, 1L, 1L));
+
+        // verificação
+        assertThat(journal.dropped()).isEqualTo(1);
+        assertThat(journal.isHealthy()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve rotacionar os segmentos e continuar do ponto certo ao reabrir o diário")
+    public void shouldRotateSegmentsAndResumeAfterReopen() throws IOException {
+        // cenário
+        JournalWriter writer = new JournalWriter(directory, JournalFormat.RECORD_SIZE * 3);
+        for (long id = 1; id <= 4; id++) {
+            writer.append(new LoanEvent(LoanEvent.Type.CREATED, id, id, id));
+        }
+        writer.close();
+
+        // execução
+        JournalWriter reopened = new JournalWriter(directory, JournalFormat.RECORD_SIZE * 3);
+        long position = reopened.append(new LoanEvent(LoanEvent.Type.RETURNED, 1L, 1L, 5L));
+        reopened.close();
+
+        // verificação
+        assertThat(position).isEqualTo(4);
+        assertThat(JournalReader.segments(directory)).hasSize(2);
+        assertThat(readAll()).extracting(LoanEvent::getTimestamp).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar um registro corrompido no fim do diário")
+    public void shouldStopAtCorruptedRecord() throws IOException {
+        // cenário
+        JournalWriter writer = new JournalWriter(directory, 4096);
+        writer.append(new LoanEvent(LoanEvent.Type.CREATED, 1L, 1L, 1L));
+        writer.append(new LoanEvent(LoanEvent.Type.CREATED, 2L, 2L, 2L));
+        writer.close();
+        Path segment = JournalReader.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), JournalFormat.RECORD_SIZE + 20);
+        }
+
+        // execução
+        JournalWriter reopened = new JournalWriter(directory, 4096);
+        reopened.append(new LoanEvent(LoanEvent.Type.RETURNED, 1L, 1L, 3L));
+        reopened.close();
+
+        // verificação
+        assertThat(readAll()).extracting(LoanEvent::getTimestamp).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os empréstimos em aberto a partir do diário")
+    public void shouldReplayOpenLoans() throws IOException {
+        // cenário
+        JournalWriter writer = new JournalWriter(directory, 4096);
+        writer.append(new LoanEvent(LoanEvent.Type.CREATED, 1L, 10L, 1L));
+        writer.append(new LoanEvent(LoanEvent.Type.CREATED, 2L, 20L, 2L));
+        writer.append(new LoanEvent(LoanEvent.Type.RETURNED, 1L, 10L, 3L));
+        writer.append(new LoanEvent(LoanEvent.Type.CREATED, 3L, 10L, 4L));
+        writer.append(new LoanEvent(LoanEvent.Type.RETURNED, 2L, 20L, 5L));
+        writer.append(new LoanEvent(LoanEvent.Type.REOPENED, 2L, 20L, 6L));
+        writer.close();
+
+        // execução
+        LoanJournalReplay replay = LoanJournalReplay.replay(directory);
+
+        // verificação
+        assertThat(replay.getOpenLoans()).containsOnlyKeys(2L, 3L);
+        assertThat(replay.getLoanedBookIds()).containsOnly(10L, 20L);
+        assertThat(replay.count(LoanEvent.Type.RETURNED)).isEqualTo(2);
+        assertThat(replay.getLastTimestamp()).isEqualTo(6);
+    }
+
+}
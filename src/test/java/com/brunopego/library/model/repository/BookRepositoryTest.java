@@ -7,12 +7,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -103,4 +112,88 @@ public class BookRepositoryTest {
         assertThat(deletedBook).isNull();
     }
 
+    @Test
+    @DisplayName("Deve retornar os isbns já cadastrados em uma única consulta")
+    public void shouldFindExistingIsbns() {
+        // cenário
+        Book book = createNewBook();
+        entityManager.persist(book);
+
+        // execução
+        Set<String> existing = repository.findExistingIsbns(Arrays.asList("123", "456"));
+
+        // verificação
+        assertThat(existing).containsExactly("123");
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os livros em ordem de id")
+    public void shouldStreamAllBooks() {
+        // cenário
+        Book first = createNewBook();
+        Book second = Book.builder().author("Bruno").title("Outro Livro").isbn("456").build();
+        entityManager.persist(first);
+        entityManager.persist(second);
+
+        // execução
+        List<String> isbns;
+        try (Stream<Book> books = repository.streamAll()) {
+            isbns = books.map(Book::getIsbn).collect(Collectors.toList());
+        }
+
+        // verificação
+        assertThat(isbns).containsExactly("123", "456");
+    }
+
+    @Test
+    @DisplayName("Deve buscar a próxima página de livros a partir do último id")
+    public void shouldFindBooksAfterId() {
+        // cenário
+        Book first = createNewBook();
+        Book second = Book.builder().author("Bruno").title("Outro Livro").isbn("456").build();
+        Book third = Book.builder().author("Maria").title("Mais um Livro").isbn("789").build();
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(third);
+
+        // execução
+        Slice<Book> result = repository.findAfter(first.getId(), null, "%bruno%", null, PageRequest.of(0, 1));
+
+        // verificação
+        assertThat(result.getContent()).containsExactly(second);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve indicar que existe uma próxima página de livros")
+    public void shouldIndicateNextPageOfBooks() {
+        // cenário
+        Book first = createNewBook();
+        Book second = Book.builder().author("Bruno").title("Outro Livro").isbn("456").build();
+        entityManager.persist(first);
+        entityManager.persist(second);
+
+        // execução
+        Slice<Book> result = repository.findAfter(0L, "%livro%", null, null, PageRequest.of(0, 1));
+
+        // verificação
+        assertThat(result.getContent()).containsExactly(first);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve impedir no banco de dados dois livros com o mesmo isbn")
+    public void shouldNotSaveDuplicatedIsbn() {
+        // cenário
+        entityManager.persist(createNewBook());
+
+        // execução
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(createNewBook()));
+
+        // verificação
+        assertThat(exception)
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("UK_BOOK_ISBN");
+    }
+
 }
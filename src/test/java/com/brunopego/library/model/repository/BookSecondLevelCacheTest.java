@@ -0,0 +1,156 @@
+package com.brunopego.library.model.repository;
+
+import com.brunopego.library.config.StatementCounter;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class BookSecondLevelCacheTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanViewRepository loanViewRepository;
+
+    @Autowired
+    OverdueLoanRepository overdueLoanRepository;
+
+    private Book book;
+
+    private Loan loan;
+
+    @BeforeEach
+    public void setUp() {
+        book = bookRepository.save(Book.builder().author("Bruno").title("Um Livro").isbn("l2-123").build());
+        loan = loanRepository.save(Loan.builder().book(book).customer("l2-fulano").loanDate(LocalDate.now()).build());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        overdueLoanRepository.findById(loan.getId()).ifPresent(overdueLoanRepository::delete);
+        loanViewRepository.findById(loan.getId()).ifPresent(loanViewRepository::delete);
+        loanRepository.findById(loan.getId()).ifPresent(loanRepository::delete);
+        bookRepository.findById(book.getId()).ifPresent(bookRepository::delete);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsOf(Runnable runnable) {
+        long before = StatementCounter.current();
+        runnable.run();
+        return StatementCounter.current() - before;
+    }
+
+    private Page<Loan> findLoans() {
+        return loanRepository.findAll(Example.of(Loan.builder().customer("l2-fulano").build()), PageRequest.of(0, 10));
+    }
+
+    @Test
+    @DisplayName("Deve carregar o livro do empréstimo a partir do cache de segundo nível")
+    public void shouldLoadLoanBookFromSecondLevelCache() {
+        // cenário
+        long cold = statementsOf(this::findLoans);
+        long hitsBefore = statistics().getSecondLevelCacheHitCount();
+
+        // execução
+        long warm = statementsOf(() -> assertThat(findLoans().getContent())
+                .extracting(l -> l.getBook().getTitle())
+                .containsExactly("Um Livro"));
+
+        // verificação
+        assertThat(warm).isEqualTo(cold - 1);
+        assertThat(statistics().getSecondLevelCacheHitCount()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Deve obter o livro por isbn a partir do cache de consultas")
+    public void shouldFindBookByIsbnFromQueryCache() {
+        // cenário
+        bookRepository.findByIsbn("l2-123");
+        long hitsBefore = statistics().getQueryCacheHitCount();
+
+        // execução
+        long statements = statementsOf(() -> assertThat(bookRepository.findByIsbn("l2-123")).isPresent());
+
+        // verificação
+        assertThat(statements).isZero();
+        assertThat(statistics().getQueryCacheHitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache ao atualizar e deletar o livro")
+    public void shouldInvalidateCacheOnUpdateAndDelete() {
+        // cenário
+        Book cached = bookRepository.findByIsbn("l2-123").get();
+        cached.setTitle("Outro Livro");
+
+        // execução
+        Book updated = bookRepository.save(cached);
+
+        // verificação
+        assertThat(bookRepository.findByIsbn("l2-123").get().getTitle()).isEqualTo("Outro Livro");
+        assertThat(bookRepository.findById(book.getId()).get().getTitle()).isEqualTo("Outro Livro");
+
+        // execução
+        loanRepository.delete(loan);
+        bookRepository.delete(updated);
+
+        // verificação
+        assertThat(bookRepository.findByIsbn("l2-123")).isEmpty();
+        assertThat(bookRepository.findById(book.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve manter o livro em cache nas escritas nativas do modelo de leitura e dos atrasos")
+    public void shouldKeepBookCachedOnNativeWrites() {
+        // cenário
+        bookRepository.findByIsbn("l2-123");
+        bookRepository.findById(book.getId());
+        long hitsBefore = statistics().getQueryCacheHitCount();
+
+        // execução
+        loanViewRepository.deleteAllRows();
+        loanViewRepository.insertAllRows();
+        long generation = overdueLoanRepository.nextGeneration();
+        overdueLoanRepository.upsert(Collections.singletonList(loan.getId()), 0, LocalDateTime.now(), generation);
+
+        // verificação
+        assertThat(entityManagerFactory.getCache().contains(Book.class, book.getId())).isTrue();
+        assertThat(statementsOf(() -> assertThat(bookRepository.findByIsbn("l2-123")).isPresent())).isZero();
+        assertThat(statistics().getQueryCacheHitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+}
@@ -1,25 +1,36 @@
 package com.brunopego.library.model.repository;
 
+import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.model.entity.Book;
 import com.brunopego.library.model.entity.Loan;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class LoanRepositoryTest {
 
     @Autowired
@@ -32,45 +43,262 @@ public class LoanRepositoryTest {
         return Book.builder().author("Bruno").title("Um Livro").isbn("123").build();
     }
 
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void persistLoansOfDistinctBooks(int count) {
+        for (int i = 0; i < count; i++) {
+            Book book = Book.builder().author("Autor " + i).title("Livro " + i).isbn("isbn-" + i).build();
+            entityManager.persist(book);
+            Loan loan = createNewLoan();
+            loan.setBook(book);
+            entityManager.persist(loan);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     private Loan createNewLoan() {
         return Loan.builder().customer("Bruno Lacerda").loanDate(LocalDate.now()).returned(false).build();
     }
 
     @Test
-    @DisplayName("Deve verificar se existe empréstimo não devolvido para o livro")
-    public void shouldVerifyIfLoanExistsForBook() {
+    @DisplayName("Deve recusar no banco um segundo empréstimo aberto do mesmo livro")
+    public void shouldRejectSecondOpenLoanOfSameBook() {
         // cenário
         Book book = createNewBook();
         entityManager.persist(book);
         Loan loan = createNewLoan();
         loan.setBook(book);
         entityManager.persist(loan);
+        Loan returnedLoan = createNewLoan();
+        returnedLoan.setBook(book);
+        returnedLoan.setReturned(true);
+        entityManager.persist(returnedLoan);
+        Loan secondLoan = createNewLoan();
+        secondLoan.setBook(book);
+
+        // execução
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(secondLoan));
+
+        // verificação
+        assertThat(exception)
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("UK_LOAN_OPEN_BOOK");
+    }
+
+    @Test
+    @DisplayName("Deve buscar empréstimos como DTO com número fixo de consultas por página")
+    public void shouldFindLoanDtosWithFixedStatementCount() {
+        // cenário
+        persistLoansOfDistinctBooks(30);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        // execução
+        Page<LoanDTO> result = repository.findDtoByCustomer("Bruno Lacerda", PageRequest.of(1, 10));
+
+        // verificação
+        assertThat(result.getContent()).hasSize(10);
+        assertThat(result.getTotalElements()).isEqualTo(30);
+        assertThat(result.getContent().get(0).getBook().getTitle()).startsWith("Livro ");
+        assertThat(result.getContent().get(0).getIsbn()).isEqualTo(result.getContent().get(0).getBook().getIsbn());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve unir os empréstimos do isbn e do customer sem repetir e com número fixo de consultas")
+    public void shouldFindRowsByBookIsbnUnionCustomer() {
+        // cenário
+        persistLoansOfDistinctBooks(30);
+        Book book = Book.builder().author("Outro").title("Outro Livro").isbn("isbn-x").build();
+        entityManager.persist(book);
+        Loan otherCustomerLoan = Loan.builder().customer("Maria").book(book).loanDate(LocalDate.now()).returned(false).build();
+        entityManager.persist(otherCustomerLoan);
+        entityManager.flush();
+        entityManager.clear();
+
+        // execução
+        Page<LoanRow> result = repository.findRowsByBookIsbnUnionCustomer("isbn-x", "Bruno Lacerda", PageRequest.of(3, 10));
+        Page<LoanRow> both = repository.findRowsByBookIsbnUnionCustomer("isbn-0", "Bruno Lacerda", PageRequest.of(0, 50));
+        Statistics statistics = statistics();
+        statistics.clear();
+        Page<LoanRow> fullPage = repository.findRowsByBookIsbnUnionCustomer("isbn-x", "Bruno Lacerda", PageRequest.of(1, 10));
+
+        // verificação
+        assertThat(result.getTotalElements()).isEqualTo(31);
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getId()).isEqualTo(otherCustomerLoan.getId());
+        assertThat(result.getContent().get(0).getCustomer()).isEqualTo("Maria");
+        assertThat(result.getContent().get(0).getBookId()).isEqualTo(book.getId());
+        assertThat(result.getContent().get(0).getTitle()).isEqualTo("Outro Livro");
+        assertThat(result.getContent().get(0).getAuthor()).isEqualTo("Outro");
+        assertThat(result.getContent().get(0).getIsbn()).isEqualTo("isbn-x");
+        assertThat(both.getTotalElements()).isEqualTo(30);
+        assertThat(both.getContent()).hasSize(30);
+        assertThat(fullPage.getContent()).hasSize(10);
+        assertThat(fullPage.getTotalElements()).isEqualTo(31);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve buscar empréstimos apenas pelo isbn")
+    public void shouldFindDtoByBookIsbn() {
+        // cenário
+        persistLoansOfDistinctBooks(3);
 
         // execução
-        boolean exists = repository.existsByBookAndNotReturned(book);
+        Page<LoanDTO> result = repository.findDtoByBookIsbn("isbn-1", PageRequest.of(0, 10));
 
         // verificação
-        assertThat(exists).isTrue();
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getIsbn()).isEqualTo("isbn-1");
     }
 
     @Test
-    @DisplayName("Deve buscar empréstimo pelo número do isbn ou pelo customer")
-    public void shouldFindByBookIsbnOrCustomer() {
+    @DisplayName("Deve obter os ids dos livros com empréstimo não devolvido")
+    public void shouldFindLoanedBookIds() {
+        // cenário
+        Book loanedBook = createNewBook();
+        entityManager.persist(loanedBook);
+        Book returnedBook = Book.builder().author("Bruno").title("Outro Livro").isbn("456").build();
+        entityManager.persist(returnedBook);
+        Loan loan = createNewLoan();
+        loan.setBook(loanedBook);
+        entityManager.persist(loan);
+        Loan returnedLoan = createNewLoan();
+        returnedLoan.setBook(returnedBook);
+        returnedLoan.setReturned(true);
+        entityManager.persist(returnedLoan);
+
+        // execução
+        Set<Long> bookIds = repository.findLoanedBookIds();
+
+        // verificação
+        assertThat(bookIds).containsExactly(loanedBook.getId());
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os empréstimos com o livro carregado")
+    public void shouldStreamAllLoans() {
         // cenário
         Book book = createNewBook();
         entityManager.persist(book);
         Loan loan = createNewLoan();
         loan.setBook(book);
         entityManager.persist(loan);
+        entityManager.clear();
 
         // execução
-        Page<Loan> result = repository.findByBookIsbnOrCustomer(book.getIsbn(), loan.getCustomer(), PageRequest.of(0, 10));
+        List<Loan> loans;
+        try (Stream<Loan> stream = repository.streamAll()) {
+            loans = stream.collect(Collectors.toList());
+        }
 
         // verificação
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getPageable().getPageSize()).isEqualTo(10);
-        assertThat(result.getPageable().getPageNumber()).isEqualTo(0);
-        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(loans).hasSize(1);
+        assertThat(loans.get(0).getBook().getIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve buscar a próxima página de empréstimos a partir do último id")
+    public void shouldFindLoansAfterId() {
+        // cenário
+        Book book = createNewBook();
+        entityManager.persist(book);
+        Loan first = createNewLoan();
+        first.setBook(book);
+        first.setReturned(true);
+        entityManager.persist(first);
+        Loan second = createNewLoan();
+        second.setBook(book);
+        entityManager.persist(second);
+
+        // execução
+        Slice<Loan> result = repository.findAfterByBookIsbn(first.getId(), book.getIsbn(), PageRequest.of(0, 10));
 
+        // verificação
+        assertThat(result.getContent()).containsExactly(second);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve buscar a próxima página de todos os empréstimos e por customer a partir do último id")
+    public void shouldFindAllAndCustomerLoansAfterId() {
+        // cenário
+        persistLoansOfDistinctBooks(3);
+        Book book = Book.builder().author("Outro").title("Outro Livro").isbn("isbn-x").build();
+        entityManager.persist(book);
+        Loan otherCustomerLoan = Loan.builder().customer("Maria").book(book).loanDate(LocalDate.now()).returned(false).build();
+        entityManager.persist(otherCustomerLoan);
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> ids = repository.findAll().stream().map(Loan::getId).sorted().collect(Collectors.toList());
+
+        // execução
+        Slice<Loan> all = repository.findAfter(ids.get(0), PageRequest.of(0, 2));
+        Slice<Loan> byCustomer = repository.findAfterByCustomer(ids.get(0), "Bruno Lacerda", PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(all.getContent()).extracting(Loan::getId).containsExactly(ids.get(1), ids.get(2));
+        assertThat(all.hasNext()).isTrue();
+        assertThat(byCustomer.getContent()).extracting(Loan::getId).containsExactly(ids.get(1), ids.get(2));
+        assertThat(byCustomer.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve unir os ids do isbn e do customer a partir do último id sem repetir")
+    public void shouldFindIdsAfterByBookIsbnUnionCustomer() {
+        // cenário
+        persistLoansOfDistinctBooks(3);
+        Book book = Book.builder().author("Outro").title("Outro Livro").isbn("isbn-x").build();
+        entityManager.persist(book);
+        Loan otherCustomerLoan = Loan.builder().customer("Maria").book(book).loanDate(LocalDate.now()).returned(false).build();
+        entityManager.persist(otherCustomerLoan);
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> ids = repository.findAll().stream().map(Loan::getId).sorted().collect(Collectors.toList());
+
+        // execução
+        List<Long> result = repository.findIdsAfterByBookIsbnUnionCustomer(ids.get(0), "isbn-1", "Bruno Lacerda", 10);
+        List<Long> limited = repository.findIdsAfterByBookIsbnUnionCustomer(ids.get(0), "isbn-x", "Bruno Lacerda", 2);
+        List<Loan> loans = repository.findWithBookByIdIn(result);
+
+        // verificação
+        assertThat(result).containsExactly(ids.get(1), ids.get(2));
+        assertThat(limited).containsExactly(ids.get(1), ids.get(2));
+        assertThat(repository.findIdsAfterByBookIsbnUnionCustomer(ids.get(2), "isbn-x", "Bruno Lacerda", 10))
+                .containsExactly(otherCustomerLoan.getId());
+        assertThat(loans).extracting(loan -> loan.getBook().getIsbn()).containsExactly("isbn-1", "isbn-2");
+    }
+
+    @Test
+    @DisplayName("Deve marcar como devolvidos apenas os empréstimos em aberto")
+    public void shouldMarkOnlyOpenLoansReturned() {
+        // cenário
+        Book book = createNewBook();
+        entityManager.persist(book);
+        Loan open = createNewLoan();
+        open.setBook(book);
+        entityManager.persist(open);
+        Loan returned = createNewLoan();
+        returned.setBook(book);
+        returned.setReturned(true);
+        entityManager.persist(returned);
+        entityManager.flush();
+
+        // execução
+        List<LoanStatus> statuses = repository.findStatusesForUpdate(Arrays.asList(open.getId(), returned.getId(), -1L));
+        int updated = repository.markReturned(Arrays.asList(open.getId(), returned.getId()));
+
+        // verificação
+        assertThat(statuses).extracting(LoanStatus::getId).containsExactlyInAnyOrder(open.getId(), returned.getId());
+        assertThat(statuses).extracting(LoanStatus::getBookId).containsOnly(book.getId());
+        assertThat(updated).isEqualTo(1);
+        Loan reloaded = entityManager.find(Loan.class, open.getId());
+        assertThat(reloaded.getReturned()).isTrue();
+        assertThat(reloaded.getVersion()).isEqualTo(open.getVersion() + 1);
     }
 }
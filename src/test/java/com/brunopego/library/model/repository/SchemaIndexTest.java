@@ -0,0 +1,82 @@
+package com.brunopego.library.model.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class SchemaIndexTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    private String explain(String sql) {
+        return entityManager.getEntityManager()
+                .createNativeQuery("explain " + sql)
+                .getSingleResult()
+                .toString()
+                .toUpperCase();
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice único ao buscar livro por isbn")
+    public void shouldUseIsbnIndex() {
+        assertThat(explain("select * from book where isbn = '123'")).contains("UK_BOOK_ISBN");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de cliente ao buscar empréstimos por cliente")
+    public void shouldUseCustomerIndex() {
+        assertThat(explain("select * from loan where customer = 'Bruno'")).contains("IDX_LOAN_CUSTOMER");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de livro ao verificar empréstimo em aberto")
+    public void shouldUseBookIndex() {
+        assertThat(explain("select count(id) from loan where id_book = 1 and returned = false"))
+                .contains("IDX_LOAN_BOOK");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de devolução ao buscar empréstimos em aberto")
+    public void shouldUseReturnedIndex() {
+        assertThat(explain("select * from loan where returned = false and loan_date < date '2020-01-01'"))
+                .contains("IDX_LOAN_RETURNED_LOAN_DATE");
+    }
+
+    @Test
+    @DisplayName("Deve usar um índice para cada lado da busca por isbn ou cliente")
+    public void shouldUseIndexesForIsbnUnionCustomer() {
+        String plan = explain(LoanRepository.ISBN_OR_CUSTOMER_IDS
+                .replace(":isbn", "'123'")
+                .replace(":customer", "'Bruno'"));
+        assertThat(plan).contains("UK_BOOK_ISBN").contains("IDX_LOAN_BOOK").contains("IDX_LOAN_CUSTOMER");
+    }
+
+    @Test
+    @DisplayName("Não deve usar índices na busca por isbn ou cliente com disjunção")
+    public void shouldNotUseIndexesForIsbnOrCustomer() {
+        String plan = explain("select l.id from loan l join book b on b.id = l.id_book " +
+                "where b.isbn = '123' or l.customer = 'Bruno'");
+        assertThat(plan).doesNotContain("IDX_LOAN_CUSTOMER");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de devolução ao percorrer os empréstimos atrasados por chave")
+    public void shouldUseReturnedIndexForOverdueKeyset() {
+        String plan = explain("select id, loan_date from loan where returned = false and loan_date < date '2020-01-01' " +
+                "and loan_date >= date '2019-01-01' and (loan_date > date '2019-01-01' or id > 42) " +
+                "order by returned, loan_date, id limit 1000");
+        assertThat(plan).contains("IDX_LOAN_RETURNED_LOAN_DATE_ID").contains("INDEX SORTED");
+    }
+
+}
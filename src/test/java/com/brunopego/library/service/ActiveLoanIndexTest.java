@@ -0,0 +1,94 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.service.impl.ActiveLoanIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ActiveLoanIndexTest {
+
+    @InjectMocks
+    private ActiveLoanIndex index;
+
+    @Mock
+    private LoanRepository repository;
+
+    @Test
+    @DisplayName("Deve reconstruir o índice a partir dos empréstimos não devolvidos")
+    public void shouldRebuildFromRepository() {
+        // cenário
+        index.reserve(99L);
+        Mockito.when(repository.findLoanedBookIds()).thenReturn(new HashSet<>(Arrays.asList(1L, 2L)));
+
+        // execução
+        index.rebuild();
+
+        // verificação
+        assertThat(index.isLoaned(1L)).isTrue();
+        assertThat(index.isLoaned(2L)).isTrue();
+        assertThat(index.isLoaned(99L)).isFalse();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve reservar o livro apenas uma vez até ser liberado")
+    public void shouldReserveBookOnlyOnce() {
+        // execução e verificação
+        assertThat(index.reserve(1L)).isTrue();
+        assertThat(index.reserve(1L)).isFalse();
+        index.release(1L);
+        assertThat(index.reserve(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve permitir uma única reserva concorrente do mesmo livro")
+    public void shouldAllowSingleConcurrentReservation() throws Exception {
+        // cenário
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                start.await();
+                return index.reserve(1L);
+            });
+        }
+
+        // execução
+        List<Future<Boolean>> futures = new ArrayList<>();
+        tasks.forEach(task -> futures.add(executor.submit(task)));
+        start.countDown();
+        int reserved = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                reserved++;
+            }
+        }
+        executor.shutdown();
+
+        // verificação
+        assertThat(reserved).isEqualTo(1);
+    }
+
+}
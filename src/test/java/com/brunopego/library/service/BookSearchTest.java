@@ -0,0 +1,114 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class BookSearchTest {
+
+    @Autowired
+    BookService service;
+
+    @Autowired
+    BookRepository repository;
+
+    private final List<Book> savedBooks = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        savedBooks.forEach(book -> repository.findById(book.getId()).ifPresent(repository::delete));
+        savedBooks.clear();
+    }
+
+    private Book save(String title, String author, String isbn) {
+        Book book = service.save(Book.builder().title(title).author(author).isbn(isbn).build());
+        savedBooks.add(book);
+        return book;
+    }
+
+    private List<String> titles(Page<Book> page) {
+        return page.getContent().stream().map(Book::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros por título e autor ordenados por relevância")
+    public void shouldSearchBooksByRelevance() {
+        // cenário
+        save("O Senhor dos Anéis", "J. R. R. Tolkien", "search-1");
+        save("Tolkien, uma biografia", "Humphrey Carpenter", "search-2");
+        save("Dom Casmurro", "Machado de Assis", "search-3");
+
+        // execução
+        Page<Book> result = service.search("tolkien", PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(titles(result)).containsExactly("Tolkien, uma biografia", "O Senhor dos Anéis");
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros ignorando acentos e caixa")
+    public void shouldSearchIgnoringAccentsAndCase() {
+        // cenário
+        save("O Senhor dos Anéis", "J. R. R. Tolkien", "search-1");
+
+        // execução
+        Page<Book> result = service.search("SENHOR aneis", PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(titles(result)).containsExactly("O Senhor dos Anéis");
+    }
+
+    @Test
+    @DisplayName("Deve paginar o resultado da busca")
+    public void shouldPageSearchResults() {
+        // cenário
+        save("Livro de Receitas", "Ana", "search-1");
+        save("Livro de Contos", "Bia", "search-2");
+        save("Livro de Poemas", "Caio", "search-3");
+
+        // execução
+        Page<Book> result = service.search("livro", PageRequest.of(1, 2));
+
+        // verificação
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Deve manter o índice atualizado ao atualizar e deletar livros")
+    public void shouldKeepIndexInSyncOnUpdateAndDelete() {
+        // cenário
+        Book book = save("Memórias Póstumas", "Machado de Assis", "search-1");
+        Book other = save("Quincas Borba", "Machado de Assis", "search-2");
+
+        // execução
+        book.setTitle("Memorial de Aires");
+        service.update(book);
+        service.delete(other);
+
+        // verificação
+        assertThat(service.search("postumas", PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(titles(service.search("memorial", PageRequest.of(0, 10)))).containsExactly("Memorial de Aires");
+        assertThat(titles(service.search("machado", PageRequest.of(0, 10)))).containsExactly("Memorial de Aires");
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.service.impl.BookServiceImpl;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class BookServiceCacheTest {
+
+    @Autowired
+    BookService service;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @MockBean
+    BookRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private Book createNewBook() {
+        return Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").build();
+    }
+
+    private CacheStats stats(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache().stats();
+    }
+
+    @Test
+    @DisplayName("Deve obter um livro por id a partir do cache na segunda consulta")
+    public void shouldGetBookByIdFromCache() {
+        // cenário
+        Book book = createNewBook();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(book));
+        CacheStats before = stats(BookServiceImpl.BOOKS_CACHE);
+
+        // execução
+        service.getById(1L);
+        Optional<Book> cached = service.getById(1L);
+
+        // verificação
+        assertThat(cached).contains(book);
+        verify(repository, times(1)).findById(1L);
+        CacheStats delta = stats(BookServiceImpl.BOOKS_CACHE).minus(before);
+        assertThat(delta.hitCount()).isEqualTo(1);
+        assertThat(delta.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache um livro inexistente")
+    public void shouldNotCacheMissingBook() {
+        // cenário
+        Mockito.when(repository.findByIsbn("123")).thenReturn(Optional.empty());
+
+        // execução
+        service.getBookByIsbn("123");
+        service.getBookByIsbn("123");
+
+        // verificação
+        verify(repository, times(2)).findByIsbn("123");
+    }
+
+    @Test
+    @DisplayName("Deve guardar no cache o livro salvo por id e por isbn")
+    public void shouldCacheSavedBook() {
+        // cenário
+        Book book = createNewBook();
+        Mockito.when(repository.saveAndFlush(Mockito.any(Book.class))).thenReturn(book);
+
+        // execução
+        service.save(Book.builder().author("Bruno").title("Um Livro").isbn("123").build());
+        Optional<Book> byId = service.getById(1L);
+        Optional<Book> byIsbn = service.getBookByIsbn("123");
+
+        // verificação
+        assertThat(byId).contains(book);
+        assertThat(byIsbn).contains(book);
+        verify(repository, Mockito.never()).findById(Mockito.anyLong());
+        verify(repository, Mockito.never()).findByIsbn(Mockito.anyString());
+    }
+
+    @Test
+    @DisplayName("Deve substituir no cache o livro atualizado")
+    public void shouldRefreshCacheOnUpdate() {
+        // cenário
+        Book book = createNewBook();
+        Book updatedBook = Book.builder().id(1L).author("Bruno").title("Um Livro a Mais").isbn("123").build();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(book));
+        Mockito.when(repository.save(Mockito.any(Book.class))).thenReturn(updatedBook);
+        service.getById(1L);
+
+        // execução
+        service.update(updatedBook);
+
+        // verificação
+        assertThat(service.getById(1L).get().getTitle()).isEqualTo("Um Livro a Mais");
+        assertThat(service.getBookByIsbn("123").get().getTitle()).isEqualTo("Um Livro a Mais");
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve remover do cache o livro deletado")
+    public void shouldEvictCacheOnDelete() {
+        // cenário
+        Book book = createNewBook();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(book));
+        Mockito.when(repository.findByIsbn("123")).thenReturn(Optional.of(book));
+        service.getById(1L);
+        service.getBookByIsbn("123");
+
+        // execução
+        service.delete(book);
+        service.getById(1L);
+        service.getBookByIsbn("123");
+
+        // verificação
+        verify(repository, times(2)).findById(1L);
+        verify(repository, times(2)).findByIsbn("123");
+    }
+
+    @Test
+    @DisplayName("Deve devolver cópias do livro guardado no cache")
+    public void shouldReturnCopiesOfCachedBook() {
+        // cenário
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(createNewBook()));
+        Book first = service.getById(1L).get();
+
+        // execução
+        first.setTitle("Alterado fora do serviço");
+        Book second = service.getById(1L).get();
+
+        // verificação
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTitle()).isEqualTo("Um Livro");
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve manter o livro do cache intacto quando a atualização falhar")
+    public void shouldKeepCachedBookWhenUpdateFails() {
+        // cenário
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(createNewBook()));
+        Mockito.when(repository.save(Mockito.any(Book.class))).thenThrow(new IllegalStateException("falha"));
+        Book book = service.getById(1L).get();
+        book.setTitle("Um Livro a Mais");
+
+        // execução
+        Throwable exception = catchThrowable(() -> service.update(book));
+
+        // verificação
+        assertThat(exception).isInstanceOf(IllegalStateException.class);
+        assertThat(service.getById(1L).get().getTitle()).isEqualTo("Um Livro");
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class BookServiceSingleFlightTest {
+
+    static final int THREADS_PER_KEY = 50;
+
+    @Autowired
+    BookService service;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @MockBean
+    BookRepository repository;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        release = new CountDownLatch(1);
+    }
+
+    private Book createNewBook() {
+        return Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").build();
+    }
+
+    private <T> T blocked(Supplier<T> result) throws InterruptedException {
+        assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+        return result.get();
+    }
+
+    private List<Thread> start(Queue<Object> results, Supplier<Object> call) {
+        List<Thread> threads = new ArrayList<>(THREADS_PER_KEY);
+        for (int i = 0; i < THREADS_PER_KEY; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    results.add(call.get());
+                } catch (RuntimeException e) {
+                    results.add(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    private void burst(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING)) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve fazer uma única consulta por chave para buscas simultâneas do mesmo livro")
+    public void shouldCoalesceConcurrentLookups() throws InterruptedException {
+        // cenário
+        Book book = createNewBook();
+        Mockito.when(repository.findById(1L)).thenAnswer(invocation -> blocked(() -> Optional.of(book)));
+        Mockito.when(repository.findByIsbn("123")).thenAnswer(invocation -> blocked(() -> Optional.of(book)));
+        Queue<Object> results = new ConcurrentLinkedQueue<>();
+
+        // execução
+        List<Thread> threads = start(results, () -> service.getById(1L));
+        threads.addAll(start(results, () -> service.getBookByIsbn("123")));
+        burst(threads);
+
+        // verificação
+        assertThat(results).hasSize(2 * THREADS_PER_KEY).containsOnly(Optional.of(book));
+        verify(repository, times(1)).findById(1L);
+        verify(repository, times(1)).findByIsbn("123");
+    }
+
+    @Test
+    @DisplayName("Deve repassar o mesmo erro a todas as buscas simultâneas e consultar de novo depois")
+    public void shouldShareFailureAndRetryAfterwards() throws InterruptedException {
+        // cenário
+        IllegalStateException failure = new IllegalStateException("falha");
+        Mockito.when(repository.findById(1L)).thenAnswer(invocation -> blocked(() -> {
+            throw failure;
+        }));
+        Queue<Object> results = new ConcurrentLinkedQueue<>();
+
+        // execução
+        burst(start(results, () -> service.getById(1L)));
+        Mockito.doReturn(Optional.of(createNewBook())).when(repository).findById(1L);
+        Optional<Book> retried = service.getById(1L);
+
+        // verificação
+        assertThat(results).hasSize(THREADS_PER_KEY).containsOnly(failure);
+        assertThat(retried).isPresent();
+        verify(repository, times(2)).findById(1L);
+    }
+
+}
@@ -1,26 +1,42 @@
 package com.brunopego.library.service;
 
+import com.brunopego.library.api.dto.BookAvailabilityDTO;
+import com.brunopego.library.api.dto.BookBatchResultDTO;
 import com.brunopego.library.exception.BusinessException;
 import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.repository.BookKey;
 import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanViewRepository;
 import com.brunopego.library.service.impl.BookServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.times;
@@ -36,6 +52,15 @@ public class BookServiceTest {
     @Mock
     BookRepository repository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    LoanRepository loanRepository;
+
+    @Mock
+    LoanViewRepository loanViewRepository;
+
     private Book createNewBook() {
         return Book.builder().author("Bruno").title("Um Livro").isbn("002").build();
     }
@@ -46,8 +71,7 @@ public class BookServiceTest {
         // cenário
         Book book = createNewBook();
         Book savedBook = Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("002").build();
-        Mockito.when(repository.existsByIsbn((Mockito.anyString()))).thenReturn(false);
-        Mockito.when(repository.save(book)).thenReturn(savedBook);
+        Mockito.when(repository.saveAndFlush(book)).thenReturn(savedBook);
 
         // execução
         savedBook = service.save(book);
@@ -65,7 +89,8 @@ public class BookServiceTest {
     public void shouldNotSaveBookIfDuplicatedIsbn() {
         // cenário
         Book book = createNewBook();
-        Mockito.when(repository.existsByIsbn((Mockito.anyString()))).thenReturn(true);
+        Mockito.when(repository.saveAndFlush(book)).thenThrow(new DataIntegrityViolationException("constraint",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_BOOK_ISBN_INDEX_1 ON PUBLIC.BOOK(ISBN)\"")));
 
         // execução
         Throwable exception = Assertions.catchThrowable(() -> service.save(book));
@@ -75,7 +100,24 @@ public class BookServiceTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Isbn já cadastrado");
 
-        verify(repository, Mockito.never()).save(book);
+        verify(repository, Mockito.never()).existsByIsbn(Mockito.anyString());
+
+    }
+
+    @Test
+    @DisplayName("Deve propagar violações de integridade que não sejam de isbn duplicado")
+    public void shouldPropagateOtherIntegrityViolations() {
+        // cenário
+        Book book = createNewBook();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("constraint",
+                new SQLException("NULL not allowed for column \"TITLE\""));
+        Mockito.when(repository.saveAndFlush(book)).thenThrow(violation);
+
+        // execução
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+
+        // verificações
+        assertThat(exception).isSameAs(violation);
 
     }
 
@@ -227,4 +269,109 @@ public class BookServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Deve salvar livros em lote rejeitando isbn já cadastrado ou repetido")
+    public void shouldSaveBooksInBatch() {
+        // cenário
+        Book newBook = Book.builder().author("Bruno").title("Um Livro").isbn("001").build();
+        Book existingBook = Book.builder().author("Bruno").title("Outro Livro").isbn("002").build();
+        Book repeatedBook = Book.builder().author("Bruno").title("Repetido").isbn("001").build();
+
+        Mockito.when(repository.findExistingIsbns(Mockito.anyCollection()))
+                .thenReturn(Collections.singleton("002"));
+        Mockito.when(repository.saveAll(Mockito.anyList()))
+                .thenReturn(Arrays.asList(Book.builder().id(10L).author("Bruno").title("Um Livro").isbn("001").build()));
+
+        // execução
+        List<BookBatchResultDTO> results = service.saveAll(Arrays.asList(newBook, existingBook, repeatedBook));
+
+        // verificação
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getStatus()).isEqualTo(BookBatchResultDTO.Status.CREATED);
+        assertThat(results.get(0).getId()).isEqualTo(10L);
+        assertThat(results.get(1).getStatus()).isEqualTo(BookBatchResultDTO.Status.REJECTED);
+        assertThat(results.get(1).getErrors()).containsExactly("Isbn já cadastrado");
+        assertThat(results.get(2).getStatus()).isEqualTo(BookBatchResultDTO.Status.REJECTED);
+        assertThat(results.get(2).getErrors()).containsExactly("Isbn repetido no lote");
+
+        verify(repository, times(1)).findExistingIsbns(Mockito.anyCollection());
+        verify(repository, times(1)).saveAll(Mockito.anyList());
+        verify(repository, Mockito.never()).existsByIsbn(Mockito.anyString());
+
+    }
+
+    @Test
+    @DisplayName("Deve verificar os isbns já cadastrados do lote em blocos de mil")
+    public void shouldFindExistingIsbnsInChunks() {
+        // cenário
+        List<Book> books = IntStream.range(0, 2500)
+                .mapToObj(i -> Book.builder().author("Bruno").title("Livro " + i).isbn("isbn-" + i).build())
+                .collect(Collectors.toList());
+        Mockito.when(repository.findExistingIsbns(Mockito.anyCollection()))
+                .thenReturn(Collections.emptySet())
+                .thenReturn(Collections.singleton("isbn-1500"))
+                .thenReturn(Collections.emptySet());
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // execução
+        List<BookBatchResultDTO> results = service.saveAll(books);
+
+        // verificação
+        ArgumentCaptor<Collection<String>> isbns = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(3)).findExistingIsbns(isbns.capture());
+        assertThat(isbns.getAllValues()).extracting(Collection::size).containsExactly(1000, 1000, 500);
+        assertThat(results.get(1500).getErrors()).containsExactly("Isbn já cadastrado");
+
+    }
+
+    @Test
+    @DisplayName("Deve buscar a próxima página de livros escapando os curingas do filtro")
+    public void shouldFindBooksAfterIdEscapingWildcards() {
+        // cenário
+        Book filter = Book.builder().title("100% Livro_").build();
+        Slice<Book> slice = new SliceImpl<Book>(Arrays.asList(createNewBook()), PageRequest.of(0, 20), false);
+        Mockito.when(repository.findAfter(Mockito.eq(10L), Mockito.eq("%100!% livro!_%"),
+                Mockito.isNull(), Mockito.isNull(), Mockito.any(Pageable.class)))
+                .thenReturn(slice);
+
+        // execução
+        Slice<Book> result = service.findAfter(filter, 10L, 20);
+
+        // verificação
+        assertThat(result).isSameAs(slice);
+
+    }
+
+    private BookKey bookKey(Long id, String isbn) {
+        BookKey key = Mockito.mock(BookKey.class);
+        Mockito.when(key.getId()).thenReturn(id);
+        Mockito.when(key.getIsbn()).thenReturn(isbn);
+        return key;
+    }
+
+    @Test
+    @DisplayName("Deve consultar a disponibilidade de vários livros com uma consulta de livros e uma de empréstimos")
+    public void shouldGetAvailabilityWithSetQueries() {
+        // cenário
+        List<BookKey> books = Arrays.asList(bookKey(1L, "001"), bookKey(2L, "002"));
+        Mockito.when(repository.findKeysByIsbns(Arrays.asList("001", "002", "003"))).thenReturn(books);
+        Mockito.when(loanRepository.findLoanedBookIdsIn(Arrays.asList(1L, 2L)))
+                .thenReturn(Collections.singleton(2L));
+
+        // execução
+        List<BookAvailabilityDTO> results = service.getAvailability(Arrays.asList("001", "002", "003", "001", null));
+
+        // verificação
+        assertThat(results).extracting(BookAvailabilityDTO::getIsbn).containsExactly("001", "002", "003");
+        assertThat(results).extracting(BookAvailabilityDTO::getId).containsExactly(1L, 2L, null);
+        assertThat(results).extracting(BookAvailabilityDTO::getStatus).containsExactly(
+                BookAvailabilityDTO.Status.AVAILABLE,
+                BookAvailabilityDTO.Status.LOANED,
+                BookAvailabilityDTO.Status.NOT_FOUND);
+        verify(repository, times(1)).findKeysByIsbns(Mockito.anyCollection());
+        verify(loanRepository, times(1)).findLoanedBookIdsIn(Mockito.anyCollection());
+        verify(repository, Mockito.never()).findByIsbn(Mockito.anyString());
+
+    }
+
 }
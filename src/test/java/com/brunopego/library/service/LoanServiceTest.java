@@ -1,10 +1,19 @@
 package com.brunopego.library.service;
 
+import com.brunopego.library.api.dto.LoanDTO;
 import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanReturnResultDTO;
 import com.brunopego.library.exception.BusinessException;
+import com.brunopego.library.exception.ErrorCode;
+import com.brunopego.library.journal.LoanEvent;
+import com.brunopego.library.journal.LoanJournal;
 import com.brunopego.library.model.entity.Book;
 import com.brunopego.library.model.entity.Loan;
 import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanRow;
+import com.brunopego.library.model.repository.LoanStatus;
+import com.brunopego.library.model.repository.LoanViewRepository;
+import com.brunopego.library.service.impl.ActiveLoanIndex;
 import com.brunopego.library.service.impl.LoanServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -13,16 +22,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
@@ -37,6 +59,18 @@ public class LoanServiceTest {
     @Mock
     private LoanRepository repository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private LoanJournal journal;
+
+    @Mock
+    private LoanViewRepository loanViewRepository;
+
+    @Spy
+    private ActiveLoanIndex activeLoans = new ActiveLoanIndex();
+
     private Book createNewBook() {
         return Book.builder().id(1L).author("Bruno").title("Um Livro").isbn("123").build();
     }
@@ -54,7 +88,6 @@ public class LoanServiceTest {
         Loan savedLoan = createNewLoan();
         savedLoan.setId(1L);
 
-        Mockito.when(repository.existsByBookAndNotReturned(loanToSave.getBook())).thenReturn(false);
         Mockito.when(repository.save(loanToSave)).thenReturn(savedLoan);
 
         // execução
@@ -65,6 +98,9 @@ public class LoanServiceTest {
         assertThat(loan.getCustomer()).isEqualTo(savedLoan.getCustomer());
         assertThat(loan.getBook()).isEqualTo(savedLoan.getBook());
         assertThat(loan.getLoanDate()).isEqualTo(savedLoan.getLoanDate());
+        assertThat(activeLoans.isLoaned(loan.getBook().getId())).isTrue();
+        verify(journal).append(Mockito.argThat(event ->
+                event.getType() == LoanEvent.Type.CREATED && event.getLoanId() == 1L && event.getBookId() == 1L));
 
     }
 
@@ -76,7 +112,7 @@ public class LoanServiceTest {
         Loan savedLoan = createNewLoan();
         savedLoan.setId(1L);
 
-        Mockito.when(repository.existsByBookAndNotReturned(loanToSave.getBook())).thenReturn(true);
+        activeLoans.reserve(loanToSave.getBook().getId());
 
         // execução
         Throwable exception = Assertions.catchThrowable(() -> service.save(loanToSave));
@@ -84,9 +120,125 @@ public class LoanServiceTest {
         // verificações
         assertThat(exception)
                 .isInstanceOf(BusinessException.class)
-                .hasMessage("Book already loaned");
+                .hasMessage("Book already loaned")
+                .hasFieldOrPropertyWithValue("code", ErrorCode.BOOK_ALREADY_LOANED);
 
         verify(repository, Mockito.never()).save(loanToSave);
+        Mockito.verifyNoInteractions(journal);
+
+    }
+
+    @Test
+    @DisplayName("Deve lançar um erro de negócio quando o banco recusar o segundo empréstimo aberto do livro")
+    public void shouldTranslateOpenBookViolation() {
+        // cenário
+        Loan loanToSave = createNewLoan();
+        Mockito.when(repository.save(loanToSave)).thenThrow(new DataIntegrityViolationException("falha",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_LOAN_OPEN_BOOK_INDEX_2\"")));
+
+        // execução
+        Throwable exception = Assertions.catchThrowable(() -> inTransaction(() -> service.save(loanToSave),
+                TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // verificação
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Book already loaned");
+        assertThat(activeLoans.isLoaned(loanToSave.getBook().getId())).isFalse();
+        Mockito.verifyNoInteractions(journal);
+
+    }
+
+    private void inTransaction(Runnable work, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve liberar o livro quando o empréstimo não for salvo")
+    public void shouldReleaseBookWhenSaveFails() {
+        // cenário
+        Loan loanToSave = createNewLoan();
+        Mockito.when(repository.save(loanToSave)).thenThrow(new IllegalStateException("falha"));
+
+        // execução
+        Throwable exception = Assertions.catchThrowable(() -> inTransaction(() -> service.save(loanToSave),
+                TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // verificação
+        assertThat(exception).isInstanceOf(IllegalStateException.class);
+        assertThat(activeLoans.isLoaned(loanToSave.getBook().getId())).isFalse();
+
+    }
+
+    @Test
+    @DisplayName("Deve liberar o livro quando a transação do empréstimo for desfeita no commit")
+    public void shouldReleaseBookWhenSaveRollsBack() {
+        // cenário
+        Loan loanToSave = createNewLoan();
+        Loan savedLoan = createNewLoan();
+        savedLoan.setId(1L);
+        Mockito.when(repository.save(loanToSave)).thenReturn(savedLoan);
+
+        // execução
+        inTransaction(() -> {
+            service.save(loanToSave);
+            assertThat(activeLoans.isLoaned(loanToSave.getBook().getId())).isTrue();
+        }, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // verificação
+        assertThat(activeLoans.isLoaned(loanToSave.getBook().getId())).isFalse();
+
+    }
+
+    @Test
+    @DisplayName("Deve liberar o livro devolvido apenas após o commit")
+    public void shouldReleaseReturnedBookOnlyAfterCommit() {
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setId(1L);
+        loan.setReturned(true);
+        activeLoans.reserve(loan.getBook().getId());
+        Mockito.when(repository.save(loan)).thenReturn(loan);
+
+        // execução e verificação
+        inTransaction(() -> {
+            service.update(loan);
+            assertThat(activeLoans.isLoaned(loan.getBook().getId())).isTrue();
+        }, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(activeLoans.isLoaned(loan.getBook().getId())).isTrue();
+
+        inTransaction(() -> service.update(loan), TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(activeLoans.isLoaned(loan.getBook().getId())).isFalse();
+
+    }
+
+    @Test
+    @DisplayName("Deve lançar um erro de negócio ao reabrir empréstimo de livro já emprestado")
+    public void shouldNotReopenLoanWithBookAlreadyLoaned() {
+        // cenário
+        Loan loan = createNewLoan();
+        loan.setId(1L);
+        activeLoans.reserve(loan.getBook().getId());
+
+        // execução
+        Throwable exception = Assertions.catchThrowable(() -> service.update(loan));
+
+        // verificação
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Book already loaned");
+        verify(repository, Mockito.never()).save(loan);
+        Mockito.verifyNoInteractions(journal);
 
     }
 
@@ -119,6 +271,7 @@ public class LoanServiceTest {
         Loan loan = createNewLoan();
         loan.setId(1L);
         loan.setReturned(true);
+        activeLoans.reserve(loan.getBook().getId());
 
         Mockito.when(repository.save(loan)).thenReturn(loan);
 
@@ -127,33 +280,176 @@ public class LoanServiceTest {
 
         // verificação
         assertThat(updatedLoan.getReturned()).isTrue();
+        assertThat(activeLoans.isLoaned(loan.getBook().getId())).isFalse();
         verify(repository).save(loan);
 
     }
 
+    private LoanStatus loanStatus(Long id, boolean returned, Long bookId) {
+        LoanStatus status = Mockito.mock(LoanStatus.class);
+        Mockito.when(status.getId()).thenReturn(id);
+        Mockito.when(status.getReturned()).thenReturn(returned);
+        Mockito.when(status.getBookId()).thenReturn(bookId);
+        return status;
+    }
+
     @Test
-    @DisplayName("Deve filtrar os empréstimos pelas propriedades")
-    public void shouldFilterLoansByProperties() {
+    @DisplayName("Deve devolver em lote apenas os empréstimos em aberto")
+    public void shouldReturnOpenLoansInBatch() {
         // cenário
-        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder().customer("Bruno Lacerda").isbn("123").build();
+        activeLoans.reserve(10L);
+        activeLoans.reserve(20L);
+        List<LoanStatus> statuses = Arrays.asList(loanStatus(1L, false, 10L), loanStatus(2L, true, 20L));
+        Mockito.when(repository.findStatusesForUpdate(Arrays.asList(1L, 2L, 3L))).thenReturn(statuses);
 
-        Loan loan = createNewLoan();
-        loan.setId(1L);
+        // execução
+        List<LoanReturnResultDTO> results = service.returnAll(Arrays.asList(1L, 2L, 3L, 2L, null));
+
+        // verificação
+        assertThat(results).extracting(LoanReturnResultDTO::getId).containsExactly(1L, 2L, 3L);
+        assertThat(results).extracting(LoanReturnResultDTO::getStatus).containsExactly(
+                LoanReturnResultDTO.Status.RETURNED,
+                LoanReturnResultDTO.Status.ALREADY_RETURNED,
+                LoanReturnResultDTO.Status.NOT_FOUND);
+        verify(repository).markReturned(Arrays.asList(1L));
+        assertThat(activeLoans.isLoaned(10L)).isFalse();
+        assertThat(activeLoans.isLoaned(20L)).isTrue();
+        verify(journal).append(Mockito.argThat(event ->
+                event.getType() == LoanEvent.Type.RETURNED && event.getLoanId() == 1L && event.getBookId() == 10L));
+        Mockito.verifyNoMoreInteractions(journal);
+
+    }
+
+    @Test
+    @DisplayName("Não deve atualizar nada quando nenhum empréstimo do lote estiver em aberto")
+    public void shouldNotUpdateWhenNoLoanIsOpen() {
+        // cenário
+        Mockito.when(repository.findStatusesForUpdate(Arrays.asList(1L))).thenReturn(new ArrayList<>());
 
+        // execução
+        List<LoanReturnResultDTO> results = service.returnAll(Arrays.asList(1L));
+
+        // verificação
+        assertThat(results).extracting(LoanReturnResultDTO::getStatus).containsExactly(LoanReturnResultDTO.Status.NOT_FOUND);
+        verify(repository, Mockito.never()).markReturned(Mockito.anyCollection());
+
+    }
+
+    @Test
+    @DisplayName("Deve filtrar os empréstimos por isbn ou customer unindo as duas buscas")
+    public void shouldFilterLoansAsDtoByIsbnUnionCustomer() {
+        // cenário
+        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder().customer("Bruno Lacerda").isbn("123").build();
         PageRequest pageRequest = PageRequest.of(0, 10);
-        List<Loan> list = Arrays.asList(loan);
-        Page<Loan> page = new PageImpl<Loan>(list, pageRequest, 1);
-        Mockito.when(repository.findByBookIsbnOrCustomer(Mockito.anyString(), Mockito.anyString(), Mockito.any(PageRequest.class)))
-                .thenReturn(page);
+        LoanRow row = Mockito.mock(LoanRow.class);
+        Mockito.when(row.getId()).thenReturn(1L);
+        Mockito.when(row.getCustomer()).thenReturn("Bruno Lacerda");
+        Mockito.when(row.getBookId()).thenReturn(2L);
+        Mockito.when(row.getTitle()).thenReturn("Um Livro");
+        Mockito.when(row.getAuthor()).thenReturn("Bruno");
+        Mockito.when(row.getIsbn()).thenReturn("123");
+        Mockito.when(repository.findRowsByBookIsbnUnionCustomer("123", "Bruno Lacerda", pageRequest))
+                .thenReturn(new PageImpl<LoanRow>(Arrays.asList(row), pageRequest, 1));
 
         // execução
-        Page<Loan> result = service.find(loanFilterDTO, pageRequest);
+        Page<LoanDTO> result = service.findDto(loanFilterDTO, pageRequest);
 
         // verificação
         assertThat(result.getTotalElements()).isEqualTo(1);
-        assertThat(result.getContent()).isEqualTo(list);
-        assertThat(result.getPageable().getPageNumber()).isEqualTo(0);
-        assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+        LoanDTO loan = result.getContent().get(0);
+        assertThat(loan.getId()).isEqualTo(1L);
+        assertThat(loan.getIsbn()).isEqualTo("123");
+        assertThat(loan.getCustomer()).isEqualTo("Bruno Lacerda");
+        assertThat(loan.getBook().getId()).isEqualTo(2L);
+        assertThat(loan.getBook().getTitle()).isEqualTo("Um Livro");
+        assertThat(loan.getBook().getAuthor()).isEqualTo("Bruno");
+
+    }
+
+    @Test
+    @DisplayName("Deve filtrar os empréstimos apenas pelo lado informado do filtro")
+    public void shouldFilterLoansAsDtoIgnoringMissingSide() {
+        // cenário
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<LoanDTO> page = new PageImpl<LoanDTO>(Arrays.asList(new LoanDTO(1L, "Bruno Lacerda", 1L, "Um Livro", "Bruno", "123")));
+        Mockito.when(repository.findDtoByBookIsbn("123", pageRequest)).thenReturn(page);
+        Mockito.when(repository.findDtoByCustomer("Bruno Lacerda", pageRequest)).thenReturn(page);
+        Mockito.when(repository.findAllDto(pageRequest)).thenReturn(page);
+
+        // execução
+        service.findDto(LoanFilterDTO.builder().isbn("123").build(), pageRequest);
+        service.findDto(LoanFilterDTO.builder().customer("Bruno Lacerda").isbn("").build(), pageRequest);
+        Page<LoanDTO> result = service.findDto(new LoanFilterDTO(), pageRequest);
+
+        // verificação
+        assertThat(result).isSameAs(page);
+        verify(repository).findDtoByBookIsbn("123", pageRequest);
+        verify(repository).findDtoByCustomer("Bruno Lacerda", pageRequest);
+        verify(repository).findAllDto(pageRequest);
+        verify(repository, Mockito.never()).findRowsByBookIsbnUnionCustomer(
+                Mockito.any(), Mockito.any(), Mockito.any(Pageable.class));
+
+    }
+
+    @Test
+    @DisplayName("Deve buscar a próxima página de empréstimos pelo lado informado do filtro")
+    public void shouldFindLoansAfterIgnoringMissingSide() {
+        // cenário
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<Loan> slice = new SliceImpl<Loan>(Arrays.asList(createNewLoan()), pageRequest, false);
+        Mockito.when(repository.findAfterByBookIsbn(42L, "123", pageRequest)).thenReturn(slice);
+        Mockito.when(repository.findAfterByCustomer(42L, "Bruno Lacerda", pageRequest)).thenReturn(slice);
+        Mockito.when(repository.findAfter(42L, pageRequest)).thenReturn(slice);
+
+        // execução
+        service.findAfter(LoanFilterDTO.builder().isbn("123").build(), 42L, 10);
+        service.findAfter(LoanFilterDTO.builder().customer("Bruno Lacerda").isbn("").build(), 42L, 10);
+        Slice<Loan> result = service.findAfter(new LoanFilterDTO(), 42L, 10);
+
+        // verificação
+        assertThat(result).isSameAs(slice);
+        verify(repository).findAfterByBookIsbn(42L, "123", pageRequest);
+        verify(repository).findAfterByCustomer(42L, "Bruno Lacerda", pageRequest);
+        verify(repository).findAfter(42L, pageRequest);
+        verify(repository, Mockito.never()).findIdsAfterByBookIsbnUnionCustomer(
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+
+    }
+
+    @Test
+    @DisplayName("Deve buscar a próxima página de empréstimos por isbn ou customer unindo as duas buscas")
+    public void shouldFindLoansAfterByIsbnUnionCustomer() {
+        // cenário
+        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder().customer("Bruno Lacerda").isbn("123").build();
+        Loan loan = createNewLoan();
+        Mockito.when(repository.findIdsAfterByBookIsbnUnionCustomer(42L, "123", "Bruno Lacerda", 3))
+                .thenReturn(Arrays.asList(43L, 44L, 45L));
+        Mockito.when(repository.findWithBookByIdIn(Arrays.asList(43L, 44L))).thenReturn(Arrays.asList(loan, loan));
+
+        // execução
+        Slice<Loan> result = service.findAfter(loanFilterDTO, 42L, 2);
+
+        // verificação
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.getSize()).isEqualTo(2);
+
+    }
+
+    @Test
+    @DisplayName("Deve exportar todos os empréstimos liberando a memória em blocos")
+    public void shouldExportAllLoans() {
+        // cenário
+        List<Loan> loans = Stream.generate(this::createNewLoan).limit(2500).collect(Collectors.toList());
+        Mockito.when(repository.streamAll()).thenReturn(loans.stream());
+
+        // execução
+        List<Loan> exported = new ArrayList<>();
+        service.exportAll(exported::add);
+
+        // verificação
+        assertThat(exported).hasSize(2500);
+        verify(entityManager, Mockito.times(2)).clear();
 
     }
 
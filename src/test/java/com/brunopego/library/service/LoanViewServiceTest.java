@@ -0,0 +1,147 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.api.dto.LoanDTO;
+import com.brunopego.library.api.dto.LoanFilterDTO;
+import com.brunopego.library.api.dto.LoanViewCheckDTO;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import com.brunopego.library.model.entity.LoanView;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.LoanViewRepository;
+import com.brunopego.library.service.impl.ActiveLoanIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class LoanViewServiceTest {
+
+    @Autowired
+    LoanViewService service;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanViewRepository loanViewRepository;
+
+    @Autowired
+    ActiveLoanIndex activeLoans;
+
+    private final List<Loan> savedLoans = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        savedLoans.forEach(loan -> {
+            loanRepository.deleteById(loan.getId());
+            loanViewRepository.findById(loan.getId()).ifPresent(loanViewRepository::delete);
+            bookRepository.deleteById(loan.getBook().getId());
+            activeLoans.release(loan.getBook().getId());
+        });
+        savedLoans.clear();
+    }
+
+    private Loan saveLoan(String isbn, String customer) {
+        Book book = bookRepository.save(Book.builder().title("Visão " + isbn).author("Bruno").isbn(isbn).build());
+        Loan loan = loanService.save(Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build());
+        savedLoans.add(loan);
+        return loan;
+    }
+
+    @Test
+    @DisplayName("Deve manter a visão de empréstimos ao emprestar, devolver e atualizar o livro")
+    public void shouldMaintainViewOnWrites() {
+        // cenário
+        Loan loan = saveLoan("view-1", "Fulano");
+        Loan other = saveLoan("view-2", "Beltrano");
+
+        // execução
+        loanService.returnAll(Arrays.asList(loan.getId()));
+        other.setReturned(true);
+        loanService.update(other);
+        Book book = other.getBook();
+        book.setTitle("Visão revista");
+        bookService.update(book);
+
+        // verificação
+        LoanView view = loanViewRepository.findById(loan.getId()).get();
+        assertThat(view.getReturned()).isTrue();
+        assertThat(view.getIsbn()).isEqualTo("view-1");
+        assertThat(view.getCustomer()).isEqualTo("Fulano");
+        LoanView otherView = loanViewRepository.findById(other.getId()).get();
+        assertThat(otherView.getReturned()).isTrue();
+        assertThat(otherView.getTitle()).isEqualTo("Visão revista");
+    }
+
+    @Test
+    @DisplayName("Deve filtrar os empréstimos pela visão por isbn ou customer")
+    public void shouldFindLoansFromView() {
+        // cenário
+        Loan byIsbn = saveLoan("view-3", "Fulano");
+        Loan byCustomer = saveLoan("view-4", "Sicrano");
+        saveLoan("view-5", "Beltrano");
+
+        // execução
+        Page<LoanDTO> result = service.find(
+                LoanFilterDTO.builder().isbn("view-3").customer("Sicrano").build(), PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(LoanDTO::getId).containsExactly(byIsbn.getId(), byCustomer.getId());
+        assertThat(result.getContent().get(0).getBook().getTitle()).isEqualTo("Visão view-3");
+    }
+
+    @Test
+    @DisplayName("Deve apontar e corrigir inconsistências da visão ao reconstruí-la")
+    public void shouldCheckAndRebuildView() {
+        // cenário
+        service.rebuild();
+        Loan missing = saveLoan("view-6", "Fulano");
+        Loan stale = saveLoan("view-7", "Beltrano");
+        loanViewRepository.deleteById(missing.getId());
+        LoanView staleView = loanViewRepository.findById(stale.getId()).get();
+        staleView.setCustomer("Outro");
+        loanViewRepository.save(staleView);
+        loanViewRepository.save(LoanView.builder().loanId(-1L).bookId(-1L).returned(false).build());
+
+        // execução
+        LoanViewCheckDTO before = service.check();
+        service.rebuild();
+        LoanViewCheckDTO after = service.check();
+
+        // verificação
+        assertThat(before.getMissing()).isEqualTo(1);
+        assertThat(before.getStale()).isEqualTo(1);
+        assertThat(before.getOrphaned()).isEqualTo(1);
+        assertThat(before.isConsistent()).isFalse();
+        assertThat(after.isConsistent()).isTrue();
+        assertThat(after.getLoans()).isEqualTo(loanViewRepository.count());
+    }
+
+}
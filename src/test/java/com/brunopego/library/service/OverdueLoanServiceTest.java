@@ -0,0 +1,119 @@
+package com.brunopego.library.service;
+
+import com.brunopego.library.api.dto.OverdueLoanDTO;
+import com.brunopego.library.model.entity.Book;
+import com.brunopego.library.model.entity.Loan;
+import com.brunopego.library.model.repository.BookRepository;
+import com.brunopego.library.model.repository.LoanRepository;
+import com.brunopego.library.model.repository.OverdueLoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "library.loans.period-days=14",
+        "library.loans.overdue.chunk-size=2",
+        "library.loans.overdue.cron=-"
+})
+public class OverdueLoanServiceTest {
+
+    static final LocalDate TODAY = LocalDate.of(2020, 7, 31);
+
+    @Autowired
+    OverdueLoanService service;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    OverdueLoanRepository overdueLoanRepository;
+
+    private final List<Loan> savedLoans = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        overdueLoanRepository.deleteAll();
+        savedLoans.forEach(loan -> {
+            loanRepository.deleteById(loan.getId());
+            bookRepository.deleteById(loan.getBook().getId());
+        });
+        savedLoans.clear();
+    }
+
+    private Loan saveLoan(String isbn, LocalDate loanDate, boolean returned) {
+        Book book = bookRepository.save(Book.builder().title("Atrasado " + isbn).author("Bruno").isbn(isbn).build());
+        Loan loan = loanRepository.save(Loan.builder().book(book).customer("Fulano").loanDate(loanDate).returned(returned).build());
+        savedLoans.add(loan);
+        return loan;
+    }
+
+    private List<Long> overdueIds() {
+        return service.find(PageRequest.of(0, 20)).getContent().stream()
+                .map(OverdueLoanDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar em blocos os empréstimos não devolvidos além do prazo")
+    public void shouldFindOverdueLoansInChunks() {
+        // cenário
+        Loan oldest = saveLoan("overdue-1", TODAY.minusDays(40), false);
+        Loan sameDay = saveLoan("overdue-2", TODAY.minusDays(20), false);
+        Loan other = saveLoan("overdue-3", TODAY.minusDays(20), false);
+        Loan lastDay = saveLoan("overdue-4", TODAY.minusDays(15), false);
+        saveLoan("overdue-5", TODAY.minusDays(14), false);
+        saveLoan("overdue-6", TODAY.minusDays(30), true);
+
+        // execução
+        int overdue = service.refresh(TODAY);
+
+        // verificação
+        assertThat(overdue).isEqualTo(4);
+        assertThat(overdueIds()).containsExactly(oldest.getId(), sameDay.getId(), other.getId(), lastDay.getId());
+        Page<OverdueLoanDTO> page = service.find(PageRequest.of(0, 1));
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent().get(0).getIsbn()).isEqualTo("overdue-1");
+        assertThat(page.getContent().get(0).getDueDate()).isEqualTo(TODAY.minusDays(26));
+    }
+
+    @Test
+    @DisplayName("Deve remover da lista os empréstimos devolvidos desde a última execução")
+    public void shouldRemoveReturnedLoans() {
+        // cenário
+        Loan returned = saveLoan("overdue-1", TODAY.minusDays(30), false);
+        Loan stillOpen = saveLoan("overdue-2", TODAY.minusDays(30), false);
+        Loan alsoReturned = saveLoan("overdue-3", TODAY.minusDays(25), false);
+        service.refresh(TODAY);
+        returned.setReturned(true);
+        alsoReturned.setReturned(true);
+        loanRepository.save(returned);
+        loanRepository.save(alsoReturned);
+
+        // execução
+        int overdue = service.refresh(TODAY);
+
+        // verificação
+        assertThat(overdue).isEqualTo(1);
+        assertThat(overdueIds()).containsExactly(stillOpen.getId());
+    }
+
+}